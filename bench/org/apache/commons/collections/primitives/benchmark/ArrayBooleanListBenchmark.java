@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives.benchmark;
+
+import org.apache.commons.collections.primitives.ArrayBooleanList;
+import org.apache.commons.collections.primitives.BooleanIterator;
+import org.apache.commons.collections.primitives.BooleanList;
+import org.apache.commons.collections.primitives.BooleanStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Throughput of {@link ArrayBooleanList}, its sub list view and
+ * {@link BooleanStack} against a raw <code>boolean[]</code>, at sizes from 10
+ * to 100M. {@link BoxedListBenchmark} measures the
+ * <code>ArrayList&lt;Boolean&gt;</code> baseline. Run with
+ * <code>-prof gc</code> to report the allocation rate.
+ *
+ * @version $Revision$ $Date$
+ */
+public class ArrayBooleanListBenchmark extends AbstractListBenchmark {
+
+ @Param({"10", "1000", "100000", "10000000", "100000000"})
+ public int size;
+
+ private boolean[] array;
+ private ArrayBooleanList list;
+ private BooleanList subList;
+
+ @Setup(Level.Trial)
+ public void setUp() {
+  array = new boolean[size];
+  list = new ArrayBooleanList(size);
+  for (int i = 0; i < size; i++) {
+   boolean value = (i & 1) == 0;
+   array[i] = value;
+   list.add(value);
+  }
+  subList = list.subList(0, size);
+ }
+
+ // add
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayBooleanList addList() {
+  ArrayBooleanList result = new ArrayBooleanList();
+  for (int i = 0; i < size; i++) {
+   result.add((i & 1) == 0);
+  }
+  return result;
+ }
+
+ @Benchmark
+ public boolean[] addArray() {
+  boolean[] result = new boolean[size];
+  for (int i = 0; i < size; i++) {
+   result[i] = (i & 1) == 0;
+  }
+  return result;
+ }
+
+ // get
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public int getList() {
+  int acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += (list.get(i) ? 1 : 0);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public int getSubList() {
+  int acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += (subList.get(i) ? 1 : 0);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public int getArray() {
+  int acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += (array[i] ? 1 : 0);
+  }
+  return acc;
+ }
+
+ // set
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayBooleanList setList() {
+  for (int i = 0; i < size; i++) {
+   list.set(i, ((size - i) & 1) == 0);
+  }
+  return list;
+ }
+
+ @Benchmark
+ public boolean[] setArray() {
+  for (int i = 0; i < size; i++) {
+   array[i] = ((size - i) & 1) == 0;
+  }
+  return array;
+ }
+
+ // iterator traversal
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public int iterateList() {
+  int acc = 0;
+  for (BooleanIterator iter = list.iterator(); iter.hasNext();) {
+   acc += (iter.next() ? 1 : 0);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public int iterateSubList() {
+  int acc = 0;
+  for (BooleanIterator iter = subList.iterator(); iter.hasNext();) {
+   acc += (iter.next() ? 1 : 0);
+  }
+  return acc;
+ }
+
+ // addAll
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayBooleanList addAllList() {
+  ArrayBooleanList result = new ArrayBooleanList();
+  result.addAll(list);
+  return result;
+ }
+
+ @Benchmark
+ public ArrayBooleanList addAllSubList() {
+  ArrayBooleanList result = new ArrayBooleanList();
+  result.addAll(subList);
+  return result;
+ }
+
+ @Benchmark
+ public boolean[] addAllArray() {
+  boolean[] result = new boolean[size];
+  System.arraycopy(array, 0, result, 0, size);
+  return result;
+ }
+
+ // toArray
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public boolean[] toArrayList() {
+  return list.toArray();
+ }
+
+ @Benchmark
+ public boolean[] toArraySubList() {
+  return subList.toArray();
+ }
+
+ // removeElementAt, each paired with an insert so the size is stable
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayBooleanList removeElementAtList() {
+  int index = size / 2;
+  list.add(index, list.removeElementAt(index));
+  return list;
+ }
+
+ // stack
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public int pushPopStack() {
+  BooleanStack stack = new BooleanStack();
+  for (int i = 0; i < size; i++) {
+   stack.push((i & 1) == 0);
+  }
+  int acc = 0;
+  while (!stack.empty()) {
+   acc += (stack.pop() ? 1 : 0);
+  }
+  return acc;
+ }
+
+}
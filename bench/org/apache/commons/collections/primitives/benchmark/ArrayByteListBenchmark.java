@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives.benchmark;
+
+import org.apache.commons.collections.primitives.ArrayByteList;
+import org.apache.commons.collections.primitives.ByteIterator;
+import org.apache.commons.collections.primitives.ByteList;
+import org.apache.commons.collections.primitives.ByteStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Throughput of {@link ArrayByteList}, its sub list view and {@link ByteStack}
+ * against a raw <code>byte[]</code>, at sizes from 10 to 100M.
+ * {@link BoxedListBenchmark} measures the <code>ArrayList&lt;Byte&gt;</code>
+ * baseline. Run with <code>-prof gc</code> to report the allocation rate.
+ *
+ * @version $Revision$ $Date$
+ */
+public class ArrayByteListBenchmark extends AbstractListBenchmark {
+
+ @Param({"10", "1000", "100000", "10000000", "100000000"})
+ public int size;
+
+ private byte[] array;
+ private ArrayByteList list;
+ private ByteList subList;
+
+ @Setup(Level.Trial)
+ public void setUp() {
+  array = new byte[size];
+  list = new ArrayByteList(size);
+  for (int i = 0; i < size; i++) {
+   byte value = (byte) i;
+   array[i] = value;
+   list.add(value);
+  }
+  subList = list.subList(0, size);
+ }
+
+ // add
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayByteList addList() {
+  ArrayByteList result = new ArrayByteList();
+  for (int i = 0; i < size; i++) {
+   result.add((byte) i);
+  }
+  return result;
+ }
+
+ @Benchmark
+ public byte[] addArray() {
+  byte[] result = new byte[size];
+  for (int i = 0; i < size; i++) {
+   result[i] = (byte) i;
+  }
+  return result;
+ }
+
+ // get
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long getList() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += list.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public long getSubList() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += subList.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public long getArray() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += array[i];
+  }
+  return acc;
+ }
+
+ // set
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayByteList setList() {
+  for (int i = 0; i < size; i++) {
+   list.set(i, (byte) (size - i));
+  }
+  return list;
+ }
+
+ @Benchmark
+ public byte[] setArray() {
+  for (int i = 0; i < size; i++) {
+   array[i] = (byte) (size - i);
+  }
+  return array;
+ }
+
+ // iterator traversal
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long iterateList() {
+  long acc = 0;
+  for (ByteIterator iter = list.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public long iterateSubList() {
+  long acc = 0;
+  for (ByteIterator iter = subList.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ // addAll
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayByteList addAllList() {
+  ArrayByteList result = new ArrayByteList();
+  result.addAll(list);
+  return result;
+ }
+
+ @Benchmark
+ public ArrayByteList addAllSubList() {
+  ArrayByteList result = new ArrayByteList();
+  result.addAll(subList);
+  return result;
+ }
+
+ @Benchmark
+ public byte[] addAllArray() {
+  byte[] result = new byte[size];
+  System.arraycopy(array, 0, result, 0, size);
+  return result;
+ }
+
+ // toArray
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public byte[] toArrayList() {
+  return list.toArray();
+ }
+
+ @Benchmark
+ public byte[] toArraySubList() {
+  return subList.toArray();
+ }
+
+ // removeElementAt, each paired with an insert so the size is stable
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayByteList removeElementAtList() {
+  int index = size / 2;
+  list.add(index, list.removeElementAt(index));
+  return list;
+ }
+
+ // stack
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long pushPopStack() {
+  ByteStack stack = new ByteStack();
+  for (int i = 0; i < size; i++) {
+   stack.push((byte) i);
+  }
+  long acc = 0;
+  while (!stack.empty()) {
+   acc += stack.pop();
+  }
+  return acc;
+ }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives.benchmark;
+
+import org.apache.commons.collections.primitives.ArrayCharList;
+import org.apache.commons.collections.primitives.CharIterator;
+import org.apache.commons.collections.primitives.CharList;
+import org.apache.commons.collections.primitives.CharStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Throughput of {@link ArrayCharList}, its sub list view and {@link CharStack}
+ * against a raw <code>char[]</code>, at sizes from 10 to 100M.
+ * {@link BoxedListBenchmark} measures the
+ * <code>ArrayList&lt;Character&gt;</code> baseline. Run with
+ * <code>-prof gc</code> to report the allocation rate.
+ *
+ * @version $Revision$ $Date$
+ */
+public class ArrayCharListBenchmark extends AbstractListBenchmark {
+
+ @Param({"10", "1000", "100000", "10000000", "100000000"})
+ public int size;
+
+ private char[] array;
+ private ArrayCharList list;
+ private CharList subList;
+
+ @Setup(Level.Trial)
+ public void setUp() {
+  array = new char[size];
+  list = new ArrayCharList(size);
+  for (int i = 0; i < size; i++) {
+   char value = (char) i;
+   array[i] = value;
+   list.add(value);
+  }
+  subList = list.subList(0, size);
+ }
+
+ // add
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayCharList addList() {
+  ArrayCharList result = new ArrayCharList();
+  for (int i = 0; i < size; i++) {
+   result.add((char) i);
+  }
+  return result;
+ }
+
+ @Benchmark
+ public char[] addArray() {
+  char[] result = new char[size];
+  for (int i = 0; i < size; i++) {
+   result[i] = (char) i;
+  }
+  return result;
+ }
+
+ // get
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long getList() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += list.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public long getSubList() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += subList.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public long getArray() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += array[i];
+  }
+  return acc;
+ }
+
+ // set
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayCharList setList() {
+  for (int i = 0; i < size; i++) {
+   list.set(i, (char) (size - i));
+  }
+  return list;
+ }
+
+ @Benchmark
+ public char[] setArray() {
+  for (int i = 0; i < size; i++) {
+   array[i] = (char) (size - i);
+  }
+  return array;
+ }
+
+ // iterator traversal
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long iterateList() {
+  long acc = 0;
+  for (CharIterator iter = list.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public long iterateSubList() {
+  long acc = 0;
+  for (CharIterator iter = subList.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ // addAll
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayCharList addAllList() {
+  ArrayCharList result = new ArrayCharList();
+  result.addAll(list);
+  return result;
+ }
+
+ @Benchmark
+ public ArrayCharList addAllSubList() {
+  ArrayCharList result = new ArrayCharList();
+  result.addAll(subList);
+  return result;
+ }
+
+ @Benchmark
+ public char[] addAllArray() {
+  char[] result = new char[size];
+  System.arraycopy(array, 0, result, 0, size);
+  return result;
+ }
+
+ // toArray
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public char[] toArrayList() {
+  return list.toArray();
+ }
+
+ @Benchmark
+ public char[] toArraySubList() {
+  return subList.toArray();
+ }
+
+ // removeElementAt, each paired with an insert so the size is stable
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayCharList removeElementAtList() {
+  int index = size / 2;
+  list.add(index, list.removeElementAt(index));
+  return list;
+ }
+
+ // stack
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long pushPopStack() {
+  CharStack stack = new CharStack();
+  for (int i = 0; i < size; i++) {
+   stack.push((char) i);
+  }
+  long acc = 0;
+  while (!stack.empty()) {
+   acc += stack.pop();
+  }
+  return acc;
+ }
+
+}
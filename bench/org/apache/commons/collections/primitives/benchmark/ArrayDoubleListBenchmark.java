@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives.benchmark;
+
+import org.apache.commons.collections.primitives.ArrayDoubleList;
+import org.apache.commons.collections.primitives.DoubleIterator;
+import org.apache.commons.collections.primitives.DoubleList;
+import org.apache.commons.collections.primitives.DoubleStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Throughput of {@link ArrayDoubleList}, its sub list view and
+ * {@link DoubleStack} against a raw <code>double[]</code>, at sizes from 10 to
+ * 100M. {@link BoxedListBenchmark} measures the
+ * <code>ArrayList&lt;Double&gt;</code> baseline. Run with <code>-prof gc</code>
+ * to report the allocation rate.
+ *
+ * @version $Revision$ $Date$
+ */
+public class ArrayDoubleListBenchmark extends AbstractListBenchmark {
+
+ @Param({"10", "1000", "100000", "10000000", "100000000"})
+ public int size;
+
+ private double[] array;
+ private ArrayDoubleList list;
+ private DoubleList subList;
+
+ @Setup(Level.Trial)
+ public void setUp() {
+  array = new double[size];
+  list = new ArrayDoubleList(size);
+  for (int i = 0; i < size; i++) {
+   double value = (double) i;
+   array[i] = value;
+   list.add(value);
+  }
+  subList = list.subList(0, size);
+ }
+
+ // add
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayDoubleList addList() {
+  ArrayDoubleList result = new ArrayDoubleList();
+  for (int i = 0; i < size; i++) {
+   result.add((double) i);
+  }
+  return result;
+ }
+
+ @Benchmark
+ public double[] addArray() {
+  double[] result = new double[size];
+  for (int i = 0; i < size; i++) {
+   result[i] = (double) i;
+  }
+  return result;
+ }
+
+ // get
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double getList() {
+  double acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += list.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public double getSubList() {
+  double acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += subList.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public double getArray() {
+  double acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += array[i];
+  }
+  return acc;
+ }
+
+ // set
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayDoubleList setList() {
+  for (int i = 0; i < size; i++) {
+   list.set(i, (double) (size - i));
+  }
+  return list;
+ }
+
+ @Benchmark
+ public double[] setArray() {
+  for (int i = 0; i < size; i++) {
+   array[i] = (double) (size - i);
+  }
+  return array;
+ }
+
+ // iterator traversal
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double iterateList() {
+  double acc = 0;
+  for (DoubleIterator iter = list.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public double iterateSubList() {
+  double acc = 0;
+  for (DoubleIterator iter = subList.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ // addAll
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayDoubleList addAllList() {
+  ArrayDoubleList result = new ArrayDoubleList();
+  result.addAll(list);
+  return result;
+ }
+
+ @Benchmark
+ public ArrayDoubleList addAllSubList() {
+  ArrayDoubleList result = new ArrayDoubleList();
+  result.addAll(subList);
+  return result;
+ }
+
+ @Benchmark
+ public double[] addAllArray() {
+  double[] result = new double[size];
+  System.arraycopy(array, 0, result, 0, size);
+  return result;
+ }
+
+ // toArray
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double[] toArrayList() {
+  return list.toArray();
+ }
+
+ @Benchmark
+ public double[] toArraySubList() {
+  return subList.toArray();
+ }
+
+ // removeElementAt, each paired with an insert so the size is stable
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayDoubleList removeElementAtList() {
+  int index = size / 2;
+  list.add(index, list.removeElementAt(index));
+  return list;
+ }
+
+ // stack
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double pushPopStack() {
+  DoubleStack stack = new DoubleStack();
+  for (int i = 0; i < size; i++) {
+   stack.push((double) i);
+  }
+  double acc = 0;
+  while (!stack.empty()) {
+   acc += stack.pop();
+  }
+  return acc;
+ }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives.benchmark;
+
+import org.apache.commons.collections.primitives.ArrayFloatList;
+import org.apache.commons.collections.primitives.FloatIterator;
+import org.apache.commons.collections.primitives.FloatList;
+import org.apache.commons.collections.primitives.FloatStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Throughput of {@link ArrayFloatList}, its sub list view and
+ * {@link FloatStack} against a raw <code>float[]</code>, at sizes from 10 to
+ * 100M. {@link BoxedListBenchmark} measures the
+ * <code>ArrayList&lt;Float&gt;</code> baseline. Run with <code>-prof gc</code>
+ * to report the allocation rate.
+ *
+ * @version $Revision$ $Date$
+ */
+public class ArrayFloatListBenchmark extends AbstractListBenchmark {
+
+ @Param({"10", "1000", "100000", "10000000", "100000000"})
+ public int size;
+
+ private float[] array;
+ private ArrayFloatList list;
+ private FloatList subList;
+
+ @Setup(Level.Trial)
+ public void setUp() {
+  array = new float[size];
+  list = new ArrayFloatList(size);
+  for (int i = 0; i < size; i++) {
+   float value = (float) i;
+   array[i] = value;
+   list.add(value);
+  }
+  subList = list.subList(0, size);
+ }
+
+ // add
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayFloatList addList() {
+  ArrayFloatList result = new ArrayFloatList();
+  for (int i = 0; i < size; i++) {
+   result.add((float) i);
+  }
+  return result;
+ }
+
+ @Benchmark
+ public float[] addArray() {
+  float[] result = new float[size];
+  for (int i = 0; i < size; i++) {
+   result[i] = (float) i;
+  }
+  return result;
+ }
+
+ // get
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double getList() {
+  double acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += list.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public double getSubList() {
+  double acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += subList.get(i);
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public double getArray() {
+  double acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += array[i];
+  }
+  return acc;
+ }
+
+ // set
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayFloatList setList() {
+  for (int i = 0; i < size; i++) {
+   list.set(i, (float) (size - i));
+  }
+  return list;
+ }
+
+ @Benchmark
+ public float[] setArray() {
+  for (int i = 0; i < size; i++) {
+   array[i] = (float) (size - i);
+  }
+  return array;
+ }
+
+ // iterator traversal
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double iterateList() {
+  double acc = 0;
+  for (FloatIterator iter = list.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ @Benchmark
+ public double iterateSubList() {
+  double acc = 0;
+  for (FloatIterator iter = subList.iterator(); iter.hasNext();) {
+   acc += iter.next();
+  }
+  return acc;
+ }
+
+ // addAll
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayFloatList addAllList() {
+  ArrayFloatList result = new ArrayFloatList();
+  result.addAll(list);
+  return result;
+ }
+
+ @Benchmark
+ public ArrayFloatList addAllSubList() {
+  ArrayFloatList result = new ArrayFloatList();
+  result.addAll(subList);
+  return result;
+ }
+
+ @Benchmark
+ public float[] addAllArray() {
+  float[] result = new float[size];
+  System.arraycopy(array, 0, result, 0, size);
+  return result;
+ }
+
+ // toArray
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public float[] toArrayList() {
+  return list.toArray();
+ }
+
+ @Benchmark
+ public float[] toArraySubList() {
+  return subList.toArray();
+ }
+
+ // removeElementAt, each paired with an insert so the size is stable
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayFloatList removeElementAtList() {
+  int index = size / 2;
+  list.add(index, list.removeElementAt(index));
+  return list;
+ }
+
+ // stack
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public double pushPopStack() {
+  FloatStack stack = new FloatStack();
+  for (int i = 0; i < size; i++) {
+   stack.push((float) i);
+  }
+  double acc = 0;
+  while (!stack.empty()) {
+   acc += stack.pop();
+  }
+  return acc;
+ }
+
+}
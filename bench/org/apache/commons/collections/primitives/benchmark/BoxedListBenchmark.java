@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives.benchmark;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Throughput of <code>java.util.ArrayList</code> holding each primitive
+ * wrapper type, the boxed baseline for the <code>Array*ListBenchmark</code>s.
+ * The elements have the same values as in those benchmarks, and reads go
+ * through <code>hashCode()</code>, which loads the wrapped value just as
+ * unboxing does.
+ * <p>
+ * Sizes stop at 10M: a boxed list of 100M elements alone would need several
+ * gigabytes of heap. Run with <code>-prof gc</code> to report the allocation
+ * rate.
+ *
+ * @version $Revision$ $Date$
+ */
+public class BoxedListBenchmark extends AbstractListBenchmark {
+
+ /**
+  * The wrapper types, each boxing an <code>int</code> the way the matching
+  * primitive benchmark converts it.
+  */
+ public enum Type {
+  BOOLEAN {
+   Object box(int i) {
+    return Boolean.valueOf((i & 1) == 0);
+   }
+  },
+  BYTE {
+   Object box(int i) {
+    return Byte.valueOf((byte) i);
+   }
+  },
+  CHAR {
+   Object box(int i) {
+    return Character.valueOf((char) i);
+   }
+  },
+  SHORT {
+   Object box(int i) {
+    return Short.valueOf((short) i);
+   }
+  },
+  INT {
+   Object box(int i) {
+    return Integer.valueOf(i);
+   }
+  },
+  LONG {
+   Object box(int i) {
+    return Long.valueOf(i);
+   }
+  },
+  FLOAT {
+   Object box(int i) {
+    return Float.valueOf(i);
+   }
+  },
+  DOUBLE {
+   Object box(int i) {
+    return Double.valueOf(i);
+   }
+  };
+
+  abstract Object box(int i);
+ }
+
+ @Param({"BOOLEAN", "BYTE", "CHAR", "SHORT", "INT", "LONG", "FLOAT",
+  "DOUBLE"})
+ public Type type;
+
+ @Param({"10", "1000", "100000", "10000000"})
+ public int size;
+
+ private ArrayList<Object> boxed;
+
+ @Setup(Level.Trial)
+ public void setUp() {
+  boxed = new ArrayList<>(size);
+  for (int i = 0; i < size; i++) {
+   boxed.add(type.box(i));
+  }
+ }
+
+ // add
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayList<Object> add() {
+  ArrayList<Object> result = new ArrayList<>();
+  for (int i = 0; i < size; i++) {
+   result.add(type.box(i));
+  }
+  return result;
+ }
+
+ // get
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long get() {
+  long acc = 0;
+  for (int i = 0; i < size; i++) {
+   acc += boxed.get(i).hashCode();
+  }
+  return acc;
+ }
+
+ // set
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayList<Object> set() {
+  for (int i = 0; i < size; i++) {
+   boxed.set(i, type.box(size - i));
+  }
+  return boxed;
+ }
+
+ // iterator traversal
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long iterate() {
+  long acc = 0;
+  for (Iterator<Object> iter = boxed.iterator(); iter.hasNext();) {
+   acc += iter.next().hashCode();
+  }
+  return acc;
+ }
+
+ // addAll
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayList<Object> addAll() {
+  ArrayList<Object> result = new ArrayList<>();
+  result.addAll(boxed);
+  return result;
+ }
+
+ // toArray
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public Object[] toArray() {
+  return boxed.toArray();
+ }
+
+ // remove, paired with an insert so the size is stable
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public ArrayList<Object> removeElementAt() {
+  int index = size / 2;
+  boxed.add(index, boxed.remove(index));
+  return boxed;
+ }
+
+ // stack
+ //-------------------------------------------------------------------------
+ @Benchmark
+ public long pushPop() {
+  ArrayList<Object> stack = new ArrayList<>();
+  for (int i = 0; i < size; i++) {
+   stack.add(type.box(i));
+  }
+  long acc = 0;
+  while (!stack.isEmpty()) {
+   acc += stack.remove(stack.size() - 1).hashCode();
+  }
+  return acc;
+ }
+
+}
@@ -0,0 +1,582 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.Objects;
+
+/**
+ * Indirect sorts of primitive lists. An <i>argsort</i> does not move the
+ * elements of a list; it returns the permutation of their indices that would
+ * sort them, so that several parallel lists (columns) can be put in the
+ * order of one of them with {@link ArrayIntList#permute permute} or
+ * {@link ArrayIntList#permuted permuted}.
+ * <p>
+ * The sorts are stable: indices of equal elements stay in ascending order.
+ * They are merge sorts of an <code>int</code> index array, comparing the
+ * elements of an array backed list in place and those of any other list in
+ * a copy made by <code>toArray</code>.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class ArgSort {
+
+ /**
+  * Ranges shorter than this are sorted by insertion.
+  */
+ private static final int INSERTION_THRESHOLD = 16;
+
+ private ArgSort() {
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link BooleanComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(BooleanList list) {
+  return argsort(list, BooleanComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(BooleanList list,
+  BooleanComparator comparator) {
+  Objects.requireNonNull(comparator);
+  boolean[] keys = list instanceof ArrayBooleanList
+   ? ((ArrayBooleanList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(boolean[] keys, BooleanComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link ByteComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(ByteList list) {
+  return argsort(list, ByteComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(ByteList list,
+  ByteComparator comparator) {
+  Objects.requireNonNull(comparator);
+  byte[] keys = list instanceof ArrayByteList
+   ? ((ArrayByteList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(byte[] keys, ByteComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link CharComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(CharList list) {
+  return argsort(list, CharComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(CharList list,
+  CharComparator comparator) {
+  Objects.requireNonNull(comparator);
+  char[] keys = list instanceof ArrayCharList
+   ? ((ArrayCharList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(char[] keys, CharComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link ShortComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(ShortList list) {
+  return argsort(list, ShortComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(ShortList list,
+  ShortComparator comparator) {
+  Objects.requireNonNull(comparator);
+  short[] keys = list instanceof ArrayShortList
+   ? ((ArrayShortList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(short[] keys, ShortComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link IntComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(IntList list) {
+  return argsort(list, IntComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(IntList list,
+  IntComparator comparator) {
+  Objects.requireNonNull(comparator);
+  int[] keys = list instanceof ArrayIntList
+   ? ((ArrayIntList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(int[] keys, IntComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link LongComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(LongList list) {
+  return argsort(list, LongComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(LongList list,
+  LongComparator comparator) {
+  Objects.requireNonNull(comparator);
+  long[] keys = list instanceof ArrayLongList
+   ? ((ArrayLongList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(long[] keys, LongComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link FloatComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(FloatList list) {
+  return argsort(list, FloatComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(FloatList list,
+  FloatComparator comparator) {
+  Objects.requireNonNull(comparator);
+  float[] keys = list instanceof ArrayFloatList
+   ? ((ArrayFloatList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(float[] keys, FloatComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order of
+  * {@link DoubleComparator#naturalOrder}.
+  *
+  * @param list the list to sort indirectly
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  */
+ public static ArrayIntList argsort(DoubleList list) {
+  return argsort(list, DoubleComparator.naturalOrder());
+ }
+
+ /**
+  * Returns the indices of the given list's elements in the order imposed by
+  * the given comparator.
+  *
+  * @param list the list to sort indirectly
+  * @param comparator the ordering of the elements
+  * @return a permutation of <code>0 .. list.size() - 1</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public static ArrayIntList argsort(DoubleList list,
+  DoubleComparator comparator) {
+  Objects.requireNonNull(comparator);
+  double[] keys = list instanceof ArrayDoubleList
+   ? ((ArrayDoubleList) list).backingArray() : list.toArray();
+  int[] order = identity(list.size());
+  mergeSort(keys, comparator, order.clone(), order, 0, order.length);
+  return ArrayIntList.wrap(order);
+ }
+
+ /**
+  * Sorts <i>src</i> from <i>low</i> to <i>high</i> into <i>dest</i>, the two
+  * holding the same indices in that range on entry.
+  */
+ private static void mergeSort(double[] keys, DoubleComparator comparator,
+  int[] src, int[] dest, int low, int high) {
+  if (high - low < INSERTION_THRESHOLD) {
+   for (int i = low + 1; i < high; i++) {
+    int index = dest[i];
+    int j = i;
+    while (j > low && comparator.compare(keys[dest[j - 1]], keys[index]) > 0) {
+     dest[j] = dest[j - 1];
+     j--;
+    }
+    dest[j] = index;
+   }
+   return;
+  }
+  int mid = (low + high) >>> 1;
+  mergeSort(keys, comparator, dest, src, low, mid);
+  mergeSort(keys, comparator, dest, src, mid, high);
+  if (comparator.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+   System.arraycopy(src, low, dest, low, high - low);
+   return;
+  }
+  for (int i = low, p = low, q = mid; i < high; i++) {
+   if (q >= high
+    || p < mid && comparator.compare(keys[src[p]], keys[src[q]]) <= 0) {
+    dest[i] = src[p++];
+   } else {
+    dest[i] = src[q++];
+   }
+  }
+ }
+
+ private static int[] identity(int size) {
+  int[] order = new int[size];
+  for (int i = 0; i < size; i++) {
+   order[i] = i;
+  }
+  return order;
+ }
+
+ /**
+  * Returns an array whose first <code>order.size()</code> elements are those
+  * of <i>order</i>, without copying an {@link ArrayIntList}.
+  */
+ static int[] indices(IntList order) {
+  return order instanceof ArrayIntList
+   ? ((ArrayIntList) order).backingArray() : order.toArray();
+ }
+}
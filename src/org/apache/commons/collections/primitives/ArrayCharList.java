@@ -16,10 +16,22 @@
  */
 package org.apache.commons.collections.primitives;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * An {@link CharList} backed by an array of <code>char</code>s. This
@@ -35,13 +47,32 @@ public class ArrayCharList extends RandomAccessCharList implements
 
  static final long serialVersionUID = 1L;
 
+ private static final char[] EMPTY_DATA = new char[0];
+
+ /**
+  * Collections larger than this are copied into a hash set by
+  * {@link #removeAll} and {@link #retainAll} rather than scanned per element.
+  */
+ private static final int HASH_THRESHOLD = 8;
+
  // constructors
  //-------------------------------------------------------------------------
  /**
   * Construct an empty list with the default initial capacity.
   */
  public ArrayCharList() {
-  this(8);
+  this(GrowthPolicy.defaultPolicy());
+ }
+
+ /**
+  * Construct an empty list that grows as the given policy directs, with the
+  * policy's {@link GrowthPolicy#initialCapacity initial capacity}.
+  *
+  * @param policy the policy deciding how far I grow when I am full
+  * @throws NullPointerException if <i>policy</i> is <code>null</code>
+  */
+ public ArrayCharList(GrowthPolicy policy) {
+  this(policy.initialCapacity(), policy);
  }
 
  /**
@@ -51,10 +82,55 @@ public class ArrayCharList extends RandomAccessCharList implements
   * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
   */
  public ArrayCharList(int initialCapacity) {
+  this(initialCapacity, GrowthPolicy.defaultPolicy());
+ }
+
+ /**
+  * Construct an empty list with the given initial capacity that grows as the
+  * given policy directs.
+  *
+  * @param initialCapacity
+  * @param policy the policy deciding how far I grow when I am full
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  * @throws NullPointerException if <i>policy</i> is <code>null</code>
+  */
+ public ArrayCharList(int initialCapacity, GrowthPolicy policy) {
+  this(initialCapacity, policy, null);
+ }
+
+ /**
+  * Construct an empty list that borrows its backing arrays from the given
+  * pool, and grows as the default policy directs. No array is borrowed until
+  * the first element is added.
+  *
+  * @param pool the pool to borrow my backing arrays from
+  * @throws NullPointerException if <i>pool</i> is <code>null</code>
+  */
+ public ArrayCharList(PrimitiveArrayPool pool) {
+  this(0, GrowthPolicy.defaultPolicy(), Objects.requireNonNull(pool));
+ }
+
+ /**
+  * Construct an empty list with the given initial capacity that grows as the
+  * given policy directs, borrowing its backing arrays from the given pool.
+  * Arrays I outgrow are released to the pool, as is my array when I am
+  * {@link #clear cleared}. Borrowed arrays may be longer than requested.
+  *
+  * @param initialCapacity
+  * @param policy the policy deciding how far I grow when I am full
+  * @param pool the pool to borrow my backing arrays from, or
+  * <code>null</code> to allocate them
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  * @throws NullPointerException if <i>policy</i> is <code>null</code>
+  */
+ public ArrayCharList(int initialCapacity, GrowthPolicy policy,
+  PrimitiveArrayPool pool) {
   if (initialCapacity < 0) {
    throw new IllegalArgumentException("capacity " + initialCapacity);
   }
-  _data = new char[initialCapacity];
+  _policy = Objects.requireNonNull(policy);
+  _pool = pool;
+  _data = allocate(initialCapacity);
   _size = 0;
  }
 
@@ -69,7 +145,22 @@ public class ArrayCharList extends RandomAccessCharList implements
   * @throws NullPointerException if <i>that</i> is <code>null</code>
   */
  public ArrayCharList(CharCollection that) {
-  this(that.size());
+  this(that, GrowthPolicy.defaultPolicy());
+ }
+
+ /**
+  * Constructs a list containing the elements of the given collection, in the
+  * order they are returned by that collection's iterator, that grows as the
+  * given policy directs.
+  *
+  * @param that the non-<code>null</code> collection of <code>char</code>s to
+  * add
+  * @param policy the policy deciding how far I grow when I am full
+  * @throws NullPointerException if <i>that</i> or <i>policy</i> is
+  * <code>null</code>
+  */
+ public ArrayCharList(CharCollection that, GrowthPolicy policy) {
+  this(that.size(), policy);
   addAll(that);
  }
 
@@ -80,11 +171,67 @@ public class ArrayCharList extends RandomAccessCharList implements
   * @throws NullPointerException if the array is <code>null</code>
   */
  public ArrayCharList(char[] array) {
-  this(array.length);
+  this(array, GrowthPolicy.defaultPolicy());
+ }
+
+ /**
+  * Constructs a list by copying the specified array, that grows as the given
+  * policy directs.
+  *
+  * @param array the array to initialize the collection with
+  * @param policy the policy deciding how far I grow when I am full
+  * @throws NullPointerException if <i>array</i> or <i>policy</i> is
+  * <code>null</code>
+  */
+ public ArrayCharList(char[] array, GrowthPolicy policy) {
+  this(array.length, policy);
   System.arraycopy(array, 0, _data, 0, array.length);
   _size = array.length;
  }
 
+ // factories
+ //-------------------------------------------------------------------------
+ /**
+  * Returns a list that adopts the given array as its backing array, without
+  * copying it, holding all of its elements.
+  *
+  * @see #wrap(char[], int)
+  * @param array the array to adopt
+  * @return a list backed by <i>array</i>
+  * @throws NullPointerException if <i>array</i> is <code>null</code>
+  */
+ public static ArrayCharList wrap(char[] array) {
+  return wrap(array, array.length);
+ }
+
+ /**
+  * Returns a list that adopts the given array as its backing array, without
+  * copying it, holding its first <i>size</i> elements. The rest of the array
+  * is spare capacity.
+  * <p>
+  * The list takes ownership of the array: writes through the list are
+  * visible in the array, and until the list outgrows it, the caller must not
+  * change the array, or read it beyond the list's size, other than through
+  * the list.
+  *
+  * @param array the array to adopt
+  * @param size the number of leading elements of <i>array</i> the list holds
+  * @return a list backed by <i>array</i>
+  * @throws NullPointerException if <i>array</i> is <code>null</code>
+  * @throws IndexOutOfBoundsException if <i>size</i> is negative or larger
+  * than the length of <i>array</i>
+  */
+ public static ArrayCharList wrap(char[] array, int size) {
+  if (size < 0 || size > array.length) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and at most " + array.length + ", found " + size);
+  }
+  ArrayCharList list = new ArrayCharList(0);
+  list._data = array;
+  list._size = size;
+  return list;
+ }
+
  // CharList methods
  //-------------------------------------------------------------------------
  @Override
@@ -170,6 +317,10 @@ public class ArrayCharList extends RandomAccessCharList implements
  public void clear() {
   incrModCount();
   _size = 0;
+  if (_pool != null) {
+   release(_data);
+   _data = EMPTY_DATA;
+  }
  }
 
  @Override
@@ -179,25 +330,501 @@ public class ArrayCharList extends RandomAccessCharList implements
 
  @Override
  public boolean addAll(int index, CharCollection collection) {
+  if (collection instanceof RandomAccessCharList) {
+   RandomAccessCharList that = (RandomAccessCharList) collection;
+   int length = that.size();
+   if (length == 0) {
+    return false;
+   }
+   checkRangeIncludingEndpoint(index);
+   if (that.backingList() == this) {
+    // opening the gap would overwrite elements not yet copied
+    return addAll(index, that.toArray(), 0, length);
+   }
+   openGap(index, length);
+   that.copyInto(0, _data, index, length);
+   return true;
+  }
   if (collection.size() == 0) {
    return false;
   }
   checkRangeIncludingEndpoint(index);
-  incrModCount();
-  ensureCapacity(_size + collection.size());
-  if (index != _size) {
-   // Need to move some elements
-   System.arraycopy(_data, index, _data, index + collection.size(), _size
-    - index);
-  }
+  openGap(index, collection.size());
   for (CharIterator it = collection.iterator(); it.hasNext();) {
    _data[index] = it.next();
    index++;
   }
-  _size += collection.size();
   return true;
  }
 
+ /**
+  * Appends <i>length</i> elements of the given array, starting at
+  * <i>offset</i>, to the end of me with a single array copy.
+  *
+  * @param array the array holding the elements to add
+  * @param offset the index in <i>array</i> of the first element to add
+  * @param length the number of elements to add
+  * @return <code>true</code> iff I changed as a result of this call
+  * @throws NullPointerException if <i>array</i> is <code>null</code>
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public boolean addAll(char[] array, int offset, int length) {
+  return addAll(_size, array, offset, length);
+ }
+
+ /**
+  * Inserts <i>length</i> elements of the given array, starting at
+  * <i>offset</i>, into me at the specified position with a single array copy.
+  * Shifts the element currently at that position (if any) and any subsequent
+  * elements to the right.
+  *
+  * @param index the index at which to insert the first element
+  * @param array the array holding the elements to add
+  * @param offset the index in <i>array</i> of the first element to add
+  * @param length the number of elements to add
+  * @return <code>true</code> iff I changed as a result of this call
+  * @throws NullPointerException if <i>array</i> is <code>null</code>
+  * @throws IndexOutOfBoundsException if <i>index</i> is out of range, or
+  * <i>offset</i> and <i>length</i> do not describe a range of <i>array</i>
+  */
+ public boolean addAll(int index, char[] array, int offset, int length) {
+  checkRangeIncludingEndpoint(index);
+  if (offset < 0 || length < 0 || offset > array.length - length) {
+   throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset
+    + " + " + length + ") out of bounds for length " + array.length);
+  }
+  if (length == 0) {
+   return false;
+  }
+  if (array == _data) {
+   array = Arrays.copyOfRange(array, offset, offset + length);
+   offset = 0;
+  }
+  openGap(index, length);
+  System.arraycopy(array, offset, _data, index, length);
+  return true;
+ }
+
+ @Override
+ protected void copyInto(int index, char[] dest, int destOffset, int length) {
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+  System.arraycopy(_data, index, dest, destOffset, length);
+ }
+
+ /**
+  * Removes all of my elements that are contained in the specified
+  * collection, in a single pass that compacts the remaining elements towards
+  * the front of my array.
+  * <p>
+  * When the collection holds more than a handful of elements, or is a view of
+  * me, its elements are first copied into a {@link CharHashSet} so that
+  * the pass runs in linear rather than quadratic time.
+  *
+  * @param collection the collection of elements to remove
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean removeAll(CharCollection collection) {
+  return batchRemove(collection, false);
+ }
+
+ /**
+  * Removes all of my elements that are <i>not</i> contained in the specified
+  * collection, in a single pass that compacts the remaining elements towards
+  * the front of my array.
+  * <p>
+  * When the collection holds more than a handful of elements, or is a view of
+  * me, its elements are first copied into a {@link CharHashSet} so that
+  * the pass runs in linear rather than quadratic time.
+  *
+  * @param collection the collection of elements to retain
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean retainAll(CharCollection collection) {
+  return batchRemove(collection, true);
+ }
+
+ /**
+  * Keeps exactly those elements whose presence in <i>collection</i> equals
+  * <i>retain</i>.
+  */
+ private boolean batchRemove(CharCollection collection, boolean retain) {
+  char[] data = _data;
+  int size = _size;
+  int kept = 0;
+  if (collection.size() > HASH_THRESHOLD || isViewOfMe(collection)) {
+   CharHashSet set = new CharHashSet(collection.size());
+   for (CharIterator iter = collection.iterator(); iter.hasNext();) {
+    set.add(iter.next());
+   }
+   for (int i = 0; i < size; i++) {
+    if (set.contains(data[i]) == retain) {
+     data[kept++] = data[i];
+    }
+   }
+  } else {
+   for (int i = 0; i < size; i++) {
+    if (collection.contains(data[i]) == retain) {
+     data[kept++] = data[i];
+    }
+   }
+  }
+  return truncate(kept);
+ }
+
+ /**
+  * Drops my elements from index <i>size</i> on.
+  */
+ private boolean truncate(int size) {
+  if (size == _size) {
+   return false;
+  }
+  incrModCount();
+  _size = size;
+  return true;
+ }
+
+ /**
+  * Returns <code>true</code> iff <i>collection</i> is me or a view of me, so
+  * that compacting my array would change it while it is being read.
+  */
+ private boolean isViewOfMe(CharCollection collection) {
+  return collection instanceof RandomAccessCharList
+   && ((RandomAccessCharList) collection).backingList() == this;
+ }
+
+ /**
+  * Removes all of my elements that satisfy the given predicate, in a single
+  * pass that compacts the remaining elements towards the front of my array.
+  * If the predicate throws, the elements it has not yet been applied to are
+  * kept.
+  *
+  * @param filter a predicate which returns <code>true</code> for elements to
+  * be removed
+  * @return <code>true</code> iff any elements were removed
+  */
+ @Override
+ public boolean removeIf(CharPredicate filter) {
+  Objects.requireNonNull(filter);
+  char[] data = _data;
+  int size = _size;
+  int kept = 0;
+  int i = 0;
+  try {
+   for (; i < size; i++) {
+    if (!filter.test(data[i])) {
+     data[kept++] = data[i];
+    }
+   }
+  } finally {
+   System.arraycopy(data, i, data, kept, size - i);
+   truncate(kept + size - i);
+  }
+  return kept != size;
+ }
+
+ @Override
+ public void replaceAll(CharUnaryOperator operator) {
+  Objects.requireNonNull(operator);
+  incrModCount();
+  char[] data = _data;
+  for (int i = 0, size = _size; i < size; i++) {
+   data[i] = operator.applyAsChar(data[i]);
+  }
+ }
+
+ @Override
+ public void forEach(CharConsumer action) {
+  Objects.requireNonNull(action);
+  char[] data = _data;
+  for (int i = 0, size = _size; i < size; i++) {
+   action.accept(data[i]);
+  }
+ }
+
+ // stream methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns a {@link Spliterator} over my elements, widened to <code>int</code>.
+  * It reports {@link Spliterator#ORDERED ORDERED},
+  * {@link Spliterator#SIZED SIZED} and {@link Spliterator#SUBSIZED SUBSIZED},
+  * and {@link Spliterator#trySplit splits} my backing array into halves, so
+  * that parallel streams divide the work evenly. It binds to my elements on
+  * first use and fails fast with a {@link ConcurrentModificationException} if I
+  * am structurally modified during traversal.
+  *
+  * @return a spliterator over my elements
+  */
+ public Spliterator.OfInt spliterator() {
+  return new ArrayCharListSpliterator(this, 0, -1, 0);
+ }
+
+ /**
+  * Returns a sequential {@link IntStream} with me as its source.
+  *
+  * @return a sequential stream over my elements
+  */
+ public IntStream stream() {
+  return StreamSupport.intStream(spliterator(), false);
+ }
+
+ /**
+  * Returns a possibly parallel {@link IntStream} with me as its source.
+  *
+  * @return a possibly parallel stream over my elements
+  */
+ public IntStream parallelStream() {
+  return StreamSupport.intStream(spliterator(), true);
+ }
+
+ // sorting methods
+ //-------------------------------------------------------------------------
+ /**
+  * Sorts my elements into ascending order.
+  * {@link Arrays#sort(char[], int, int) Arrays.sort} counting sorts large
+  * ranges of <code>char</code> values in place, so no copy of my elements is
+  * made.
+  */
+ public void sort() {
+  sort(0, _size);
+ }
+
+ /**
+  * Sorts my elements from <i>fromIndex</i>, inclusive, to <i>toIndex</i>,
+  * exclusive, into ascending order.
+  *
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws IndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than my {@link #size size}
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public void sort(int fromIndex, int toIndex) {
+  if (fromIndex < 0 || toIndex > _size) {
+   throw new IndexOutOfBoundsException("Range [" + fromIndex + ", "
+    + toIndex + ") out of bounds for length " + _size);
+  } else if (fromIndex > toIndex) {
+   throw new IllegalArgumentException(fromIndex + " > " + toIndex);
+  }
+  incrModCount();
+  Arrays.sort(_data, fromIndex, toIndex);
+ }
+
+ /**
+  * Sorts my elements into descending order.
+  */
+ public void sortDescending() {
+  sort();
+  for (int i = 0, j = _size - 1; i < j; i++, j--) {
+   char tmp = _data[i];
+   _data[i] = _data[j];
+   _data[j] = tmp;
+  }
+ }
+
+ /**
+  * Sorts my elements into ascending order like {@link #sort}, using
+  * {@link Arrays#parallelSort(char[], int, int) Arrays.parallelSort} in the
+  * common {@link java.util.concurrent.ForkJoinPool}.
+  */
+ public void parallelSort() {
+  incrModCount();
+  Arrays.parallelSort(_data, 0, _size);
+ }
+
+ // permutation methods
+ //-------------------------------------------------------------------------
+ /**
+  * Rearranges my elements in place so that the element at each index
+  * <i>i</i> is the one that was at <code>order.get(i)</code>, for instance
+  * to apply an {@link ArgSort#argsort argsort} of a parallel list. Besides
+  * my elements, this needs just a bit per element to track progress.
+  *
+  * @param order a permutation of my indices
+  * @throws IllegalArgumentException if <i>order</i> is not a permutation of
+  * <code>0 .. size() - 1</code>, in which case I am unchanged
+  */
+ public void permute(IntList order) {
+  int[] indices = ArgSort.indices(order);
+  if (order.size() != _size) {
+   throw new IllegalArgumentException("Order of size " + order.size()
+    + " for list of size " + _size);
+  }
+  long[] done = new long[(_size + 63) >>> 6];
+  for (int i = 0; i < _size; i++) {
+   int j = indices[i];
+   if (j < 0 || j >= _size || (done[j >>> 6] & 1L << j) != 0) {
+    throw new IllegalArgumentException("Not a permutation: " + j
+     + " at index " + i);
+   }
+   done[j >>> 6] |= 1L << j;
+  }
+  incrModCount();
+  Arrays.fill(done, 0L);
+  for (int start = 0; start < _size; start++) {
+   if ((done[start >>> 6] & 1L << start) != 0) {
+    continue;
+   }
+   // rotate the cycle through start
+   char first = _data[start];
+   int i = start;
+   for (int j = indices[i]; j != start; i = j, j = indices[i]) {
+    _data[i] = _data[j];
+    done[i >>> 6] |= 1L << i;
+   }
+   _data[i] = first;
+   done[i >>> 6] |= 1L << i;
+  }
+ }
+
+ /**
+  * Returns a new list holding, at each index <i>i</i>, my element at
+  * <code>order.get(i)</code>. Unlike {@link #permute permute}, <i>order</i>
+  * need not be a permutation: it may repeat or leave out indices.
+  *
+  * @param order the indices of the elements to copy
+  * @return a new list of <code>order.size()</code> elements
+  * @throws IndexOutOfBoundsException if an element of <i>order</i> is not one
+  * of my indices
+  */
+ public ArrayCharList permuted(IntList order) {
+  int[] indices = ArgSort.indices(order);
+  int size = order.size();
+  char[] data = new char[size];
+  for (int i = 0; i < size; i++) {
+   int j = indices[i];
+   checkRange(j);
+   data[i] = _data[j];
+  }
+  return wrap(data);
+ }
+
+ // selection methods
+ //-------------------------------------------------------------------------
+ /**
+  * Rearranges my elements in place so that the element at <i>index</i> is the
+  * one that would be there if I were {@link #sort sorted}, with no greater
+  * element before it and no lesser element after it, in linear expected time.
+  * With <i>index</i> at <code>p * size() / 100</code> this finds the <i>p</i>th
+  * percentile without sorting or copying.
+  *
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  * @see QuickSelect#select(char[], int, int, int)
+  */
+ public char nthElement(int index) {
+  checkRange(index);
+  incrModCount();
+  return QuickSelect.select(_data, 0, _size, index);
+ }
+
+ /**
+  * Returns a new list of my <i>k</i> greatest elements, greatest first, or all
+  * my elements if I have no more than <i>k</i>. I am not modified.
+  *
+  * @param k the number of elements to return
+  * @return my greatest elements in descending order
+  * @throws IllegalArgumentException if <i>k</i> is negative
+  * @see CharTopK
+  */
+ public ArrayCharList topK(int k) {
+  CharTopK top = new CharTopK(k);
+  for (int i = 0; i < _size; i++) {
+   top.add(_data[i]);
+  }
+  return top.toList();
+ }
+
+ // channel methods
+ //-------------------------------------------------------------------------
+ /**
+  * Writes my elements to the given channel, in the given byte order, through a
+  * pooled direct buffer. The channel must be in blocking mode.
+  *
+  * @param channel the channel to write to
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws NullPointerException if <i>order</i> is <code>null</code>
+  */
+ public void writeTo(WritableByteChannel channel, ByteOrder order)
+  throws IOException {
+  PrimitiveArrayIO.write(channel, _data, 0, _size, order);
+ }
+
+ /**
+  * Appends elements read from the given channel, in the given byte order, to
+  * the end of me until the channel reaches end-of-stream. The channel must be
+  * in blocking mode. If reading fails, I am left with my original elements.
+  *
+  * @param channel the channel to read from
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws NullPointerException if <i>order</i> is <code>null</code>
+  */
+ public int readFrom(ReadableByteChannel channel, ByteOrder order)
+  throws IOException {
+  incrModCount();
+  int start = _size;
+  try {
+   for (;;) {
+    if (_size == _data.length) {
+     ensureCapacity(PrimitiveArrayIO.readCapacity(_size, Character.BYTES));
+    }
+    int length = _data.length - _size;
+    int n = PrimitiveArrayIO.read(channel, _data, _size, length, order);
+    _size += n;
+    if (n < length) {
+     return _size - start;
+    }
+   }
+  } catch (IOException | RuntimeException e) {
+   _size = start;
+   throw e;
+  }
+ }
+
+ /**
+  * Appends exactly <i>count</i> elements read from the given channel, in the
+  * given byte order, to the end of me. The channel must be in blocking mode. If
+  * reading fails, I am left with my original elements.
+  *
+  * @param channel the channel to read from
+  * @param count the number of elements to read
+  * @param order the byte order to read in
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends before <i>count</i>
+  * elements are read
+  * @throws IllegalArgumentException if <i>count</i> is negative
+  * @throws IllegalStateException if I would grow past
+  * <code>Integer.MAX_VALUE</code> elements
+  * @throws NullPointerException if <i>order</i> is <code>null</code>
+  */
+ public void readFrom(ReadableByteChannel channel, int count, ByteOrder order)
+  throws IOException {
+  if (count < 0) {
+   throw new IllegalArgumentException("count " + count);
+  }
+  if (count > Integer.MAX_VALUE - _size) {
+   throw new IllegalStateException("Size would exceed " + Integer.MAX_VALUE);
+  }
+  ensureCapacity(_size + count);
+  int n = PrimitiveArrayIO.read(channel, _data, _size, count, order);
+  if (n < count) {
+   throw new EOFException("Read " + n + " of " + count + " elements");
+  }
+  _size += count;
+ }
+
  // capacity methods
  //-------------------------------------------------------------------------
  /**
@@ -210,10 +837,11 @@ public class ArrayCharList extends RandomAccessCharList implements
  public void ensureCapacity(int mincap) {
   incrModCount();
   if (mincap > _data.length) {
-   int newcap = (_data.length * 3) / 2 + 1;
+   int newcap = _policy.grow(_data.length, mincap);
    char[] olddata = _data;
-   _data = new char[newcap < mincap ? mincap : newcap];
+   _data = allocate(newcap < mincap ? mincap : newcap);
    System.arraycopy(olddata, 0, _data, 0, _size);
+   release(olddata);
   }
  }
 
@@ -226,6 +854,7 @@ public class ArrayCharList extends RandomAccessCharList implements
    char[] olddata = _data;
    _data = new char[_size];
    System.arraycopy(olddata, 0, _data, 0, _size);
+   release(olddata);
   }
  }
 
@@ -233,18 +862,44 @@ public class ArrayCharList extends RandomAccessCharList implements
  //-------------------------------------------------------------------------
  private void writeObject(ObjectOutputStream out) throws IOException {
   out.defaultWriteObject();
-  out.writeInt(_data.length);
-  for (int i = 0; i < _size; i++) {
-   out.writeChar(_data[i]);
-  }
+  // the capacity, kept for compatibility; only my elements are written
+  out.writeInt(_size);
+  PrimitiveArrayIO.write(out, _data, 0, _size);
  }
 
  private void readObject(ObjectInputStream in) throws IOException,
   ClassNotFoundException {
   in.defaultReadObject();
-  _data = new char[in.readInt()];
-  for (int i = 0; i < _size; i++) {
-   _data[i] = in.readChar();
+  if (_policy == null) {
+   // written before lists had a growth policy
+   _policy = GrowthPolicy.defaultPolicy();
+  }
+  if (_size < 0) {
+   throw new InvalidObjectException("size " + _size);
+  }
+  // the capacity the list was written with, which I do not need
+  in.readInt();
+  _data = _size == 0 ? EMPTY_DATA : new char[_size];
+  PrimitiveArrayIO.readFully(in, _data, 0, _size);
+ }
+
+ /**
+  * Returns a new backing array of at least <i>capacity</i> elements,
+  * borrowed from my pool if I have one.
+  */
+ private char[] allocate(int capacity) {
+  if (capacity == 0) {
+   return EMPTY_DATA;
+  }
+  return _pool == null ? new char[capacity] : _pool.borrowChars(capacity);
+ }
+
+ /**
+  * Returns a backing array I no longer use to my pool, if I have one.
+  */
+ private void release(char[] data) {
+  if (_pool != null && data != EMPTY_DATA) {
+   _pool.release(data);
   }
  }
 
@@ -262,6 +917,33 @@ public class ArrayCharList extends RandomAccessCharList implements
   }
  }
 
+ /**
+  * Makes room for <i>length</i> elements at <i>index</i>, shifting any
+  * subsequent elements to the right, and counts them in my size.
+  */
+ private void openGap(int index, int length) {
+  incrModCount();
+  ensureCapacity(_size + length);
+  if (index != _size) {
+   System.arraycopy(_data, index, _data, index + length, _size - index);
+  }
+  _size += length;
+ }
+
+ /**
+  * Returns my backing array, without copying it. My elements are its first
+  * {@link #size size} elements; the rest of it is spare capacity. This lets
+  * read-only consumers process my elements in bulk.
+  * <p>
+  * The array must not be modified. It no longer reflects my elements once I
+  * am structurally modified, since I may then have moved to a new array.
+  *
+  * @return my backing array
+  */
+ public char[] backingArray() {
+  return _data;
+ }
+
  /**
   * Returns the array containing all of my elements and clears this list. The
   * length of the returned array will be equal to my {@link #size size}.
@@ -287,4 +969,87 @@ public class ArrayCharList extends RandomAccessCharList implements
  //-------------------------------------------------------------------------
  private transient char[] _data = null;
  private int _size = 0;
+ private GrowthPolicy _policy = null;
+ private transient PrimitiveArrayPool _pool = null;
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ private static final class ArrayCharListSpliterator implements
+  Spliterator.OfInt {
+
+  ArrayCharListSpliterator(ArrayCharList list, int origin, int fence,
+   int expectedModCount) {
+   _list = list;
+   _index = origin;
+   _fence = fence;
+   _expectedModCount = expectedModCount;
+  }
+
+  @Override
+  public Spliterator.OfInt trySplit() {
+   int lo = _index;
+   int mid = (lo + getFence()) >>> 1;
+   if (lo >= mid) {
+    return null;
+   }
+   _index = mid;
+   return new ArrayCharListSpliterator(_list, lo, mid, _expectedModCount);
+  }
+
+  @Override
+  public boolean tryAdvance(IntConsumer action) {
+   Objects.requireNonNull(action);
+   int hi = getFence();
+   int i = _index;
+   if (i >= hi) {
+    return false;
+   }
+   _index = i + 1;
+   action.accept(_list._data[i]);
+   checkForComodification();
+   return true;
+  }
+
+  @Override
+  public void forEachRemaining(IntConsumer action) {
+   Objects.requireNonNull(action);
+   int hi = getFence();
+   char[] data = _list._data;
+   for (int i = _index; i < hi; i++) {
+    action.accept(data[i]);
+   }
+   _index = hi;
+   checkForComodification();
+  }
+
+  @Override
+  public long estimateSize() {
+   return getFence() - _index;
+  }
+
+  @Override
+  public int characteristics() {
+   return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+  }
+
+  private int getFence() {
+   int hi = _fence;
+   if (hi < 0) {
+    _expectedModCount = _list.getModCount();
+    hi = _fence = _list._size;
+   }
+   return hi;
+  }
+
+  private void checkForComodification() {
+   if (_list.getModCount() != _expectedModCount) {
+    throw new ConcurrentModificationException();
+   }
+  }
+
+  private final ArrayCharList _list;
+  private int _index;
+  private int _fence;
+  private int _expectedModCount;
+ }
 }
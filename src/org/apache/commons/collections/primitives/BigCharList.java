@@ -0,0 +1,644 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A list of <code>char</code>s indexed by <code>long</code>, which can hold
+ * more than {@link Integer#MAX_VALUE} elements. My elements are kept in
+ * segments of {@link #SEGMENT_SIZE} elements each, so that no single array
+ * has to be larger than the virtual machine allows, and bulk operations
+ * copy whole segment ranges with <code>System.arraycopy</code>.
+ * <p>
+ * Since {@link CharCollection} counts elements with an <code>int</code>,
+ * {@link #size} reports at most {@link Integer#MAX_VALUE}; use
+ * {@link #size64} for my true size. Methods that return all of my elements
+ * in a single array throw an {@link IllegalStateException} when I hold more
+ * elements than an array can.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class BigCharList extends AbstractCharCollection
+ implements Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ /**
+  * The number of elements held by each full segment.
+  */
+ public static final int SEGMENT_SIZE = 1 << 26;
+
+ private static final int SEGMENT_SHIFT = 26;
+ private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+ /**
+  * The largest number of elements I can hold.
+  */
+ private static final long MAX_CAPACITY = (long) Integer.MAX_VALUE
+  << SEGMENT_SHIFT;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty list with the default initial capacity.
+  */
+ public BigCharList() {
+  this(8);
+ }
+
+ /**
+  * Construct an empty list with the given initial capacity.
+  *
+  * @param initialCapacity
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  */
+ public BigCharList(long initialCapacity) {
+  if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+   throw new IllegalArgumentException("capacity " + initialCapacity);
+  }
+  _segments = EMPTY_SEGMENTS;
+  ensureCapacity(initialCapacity);
+ }
+
+ /**
+  * Constructs a list containing the elements of the given collection, in the
+  * order they are returned by that collection's iterator.
+  *
+  * @see BigCharList#addAll(CharCollection)
+  * @param that the non-<code>null</code> collection of <code>char</code>s to
+  * add
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public BigCharList(CharCollection that) {
+  this(that.size());
+  addAll(that);
+ }
+
+ // list methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns the element at the specified position.
+  *
+  * @param index the index of the element to return
+  * @return the value of the element at the specified position
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ public char get(long index) {
+  checkRange(index);
+  return _segments[segment(index)][offset(index)];
+ }
+
+ /**
+  * Replaces the element at the specified position in me with the specified
+  * element.
+  *
+  * @param index the index of the element to change
+  * @param element the value to be stored at the specified position
+  * @return the value previously stored at the specified position
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ public char set(long index, char element) {
+  checkRange(index);
+  char[] segment = _segments[segment(index)];
+  char oldval = segment[offset(index)];
+  segment[offset(index)] = element;
+  return oldval;
+ }
+
+ /**
+  * Returns the number of elements I contain, or {@link Integer#MAX_VALUE}
+  * if that is more.
+  *
+  * @return the number of elements I contain, capped to
+  * <code>Integer.MAX_VALUE</code>
+  */
+ @Override
+ public int size() {
+  return (int) Math.min(_size, Integer.MAX_VALUE);
+ }
+
+ /**
+  * Returns the number of elements I contain.
+  *
+  * @return the number of elements I contain
+  */
+ public long size64() {
+  return _size;
+ }
+
+ @Override
+ public boolean isEmpty() {
+  return _size == 0;
+ }
+
+ @Override
+ public boolean add(char element) {
+  ensureCapacity(_size + 1);
+  _modCount++;
+  _segments[segment(_size)][offset(_size)] = element;
+  _size++;
+  return true;
+ }
+
+ /**
+  * Inserts the specified element at the specified position. Shifts the
+  * element currently at that position (if any) and any subsequent elements
+  * to the right, increasing their indices.
+  *
+  * @param index the index at which to insert the element
+  * @param element the value to insert
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ public void add(long index, char element) {
+  checkRangeIncludingEndpoint(index);
+  openGap(index, 1);
+  _segments[segment(index)][offset(index)] = element;
+ }
+
+ /**
+  * Removes the element at the specified position. Any subsequent elements
+  * are shifted to the left, subtracting one from their indices.
+  *
+  * @param index the index of the element to remove
+  * @return the value of the element that was removed
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ public char removeElementAt(long index) {
+  char oldval = get(index);
+  _modCount++;
+  move(index + 1, index, _size - index - 1);
+  _size--;
+  return oldval;
+ }
+
+ /**
+  * Returns the index of the first occurrence of the specified element, or
+  * <code>-1</code> if I do not contain it.
+  *
+  * @param element the element to search for
+  * @return the index of the first occurrence of <i>element</i>, or
+  * <code>-1</code>
+  */
+ public long indexOf(char element) {
+  for (int s = 0, n = segmentsFor(_size); s < n; s++) {
+   char[] segment = _segments[s];
+   int limit =
+    (int) Math.min(SEGMENT_SIZE, _size - ((long) s << SEGMENT_SHIFT));
+   for (int i = 0; i < limit; i++) {
+    if (segment[i] == element) {
+     return ((long) s << SEGMENT_SHIFT) + i;
+    }
+   }
+  }
+  return -1;
+ }
+
+ @Override
+ public boolean contains(char element) {
+  return indexOf(element) != -1;
+ }
+
+ @Override
+ public void clear() {
+  _modCount++;
+  _size = 0;
+ }
+
+ @Override
+ public boolean addAll(CharCollection collection) {
+  if (collection == this) {
+   collection = new BigCharList(this);
+  }
+  if (collection instanceof BigCharList) {
+   BigCharList that = (BigCharList) collection;
+   long length = that._size;
+   if (length == 0) {
+    return false;
+   }
+   ensureCapacity(_size + length);
+   _modCount++;
+   long index = _size;
+   _size += length;
+   for (long done = 0; done < length;) {
+    int n = (int) Math.min(length - done, SEGMENT_SIZE - offset(done));
+    setElements(index + done, that._segments[segment(done)], offset(done),
+     n);
+    done += n;
+   }
+   return true;
+  }
+  char[] elements = collection.toArray();
+  return addAll(elements, 0, elements.length);
+ }
+
+ /**
+  * Appends <i>length</i> elements of the given array, starting at
+  * <i>offset</i>, to the end of me.
+  *
+  * @param array the array holding the elements to add
+  * @param offset the index in <i>array</i> of the first element to add
+  * @param length the number of elements to add
+  * @return <code>true</code> iff I changed as a result of this call
+  * @throws NullPointerException if <i>array</i> is <code>null</code>
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public boolean addAll(char[] array, int offset, int length) {
+  checkArrayRange(array, offset, length);
+  if (length == 0) {
+   return false;
+  }
+  ensureCapacity(_size + length);
+  _modCount++;
+  long index = _size;
+  _size += length;
+  setElements(index, array, offset, length);
+  return true;
+ }
+
+ /**
+  * Copies <i>length</i> of my elements, starting at <i>index</i>, into
+  * <i>dest</i> starting at <i>destOffset</i>, one segment range at a time.
+  *
+  * @param index the index of my first element to copy
+  * @param dest the array to copy into
+  * @param destOffset the index in <i>dest</i> of the first copied element
+  * @param length the number of elements to copy
+  * @throws IndexOutOfBoundsException if either range is out of bounds
+  */
+ public void getElements(long index, char[] dest, int destOffset,
+  int length) {
+  checkRange(index, length);
+  checkArrayRange(dest, destOffset, length);
+  for (int done = 0; done < length;) {
+   long pos = index + done;
+   int n = Math.min(length - done, SEGMENT_SIZE - offset(pos));
+   System.arraycopy(_segments[segment(pos)], offset(pos), dest,
+    destOffset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Overwrites <i>length</i> of my elements, starting at <i>index</i>, with
+  * those of <i>src</i> starting at <i>srcOffset</i>, one segment range at a
+  * time.
+  *
+  * @param index the index of my first element to overwrite
+  * @param src the array to copy from
+  * @param srcOffset the index in <i>src</i> of the first element to copy
+  * @param length the number of elements to copy
+  * @throws IndexOutOfBoundsException if either range is out of bounds
+  */
+ public void setElements(long index, char[] src, int srcOffset,
+  int length) {
+  checkRange(index, length);
+  checkArrayRange(src, srcOffset, length);
+  for (int done = 0; done < length;) {
+   long pos = index + done;
+   int n = Math.min(length - done, SEGMENT_SIZE - offset(pos));
+   System.arraycopy(src, srcOffset + done, _segments[segment(pos)],
+    offset(pos), n);
+   done += n;
+  }
+ }
+
+ @Override
+ public char[] toArray() {
+  checkArraySize();
+  char[] array = new char[(int) _size];
+  getElements(0, array, 0, array.length);
+  return array;
+ }
+
+ @Override
+ public char[] toArray(char[] a) {
+  checkArraySize();
+  if (a.length < _size) {
+   return toArray();
+  }
+  getElements(0, a, 0, (int) _size);
+  return a;
+ }
+
+ @Override
+ public CharIterator iterator() {
+  return new BigCharListIterator();
+ }
+
+ /**
+  * Removes all of my elements that satisfy the given predicate, in a single
+  * pass that compacts the remaining elements towards the front. If the
+  * predicate throws, the elements it has not yet been applied to are kept.
+  *
+  * @param filter a predicate which returns <code>true</code> for elements to
+  * be removed
+  * @return <code>true</code> iff any elements were removed
+  */
+ @Override
+ public boolean removeIf(CharPredicate filter) {
+  Objects.requireNonNull(filter);
+  long size = _size;
+  long kept = 0;
+  long i = 0;
+  try {
+   for (; i < size; i++) {
+    char element = _segments[segment(i)][offset(i)];
+    if (!filter.test(element)) {
+     _segments[segment(kept)][offset(kept)] = element;
+     kept++;
+    }
+   }
+  } finally {
+   move(i, kept, size - i);
+   long newSize = kept + size - i;
+   if (newSize != size) {
+    _modCount++;
+    _size = newSize;
+   }
+  }
+  return kept != size;
+ }
+
+ /**
+  * Removes all of my elements that are contained in the specified
+  * collection, in a single pass.
+  *
+  * @param collection the collection of elements to remove
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean removeAll(CharCollection collection) {
+  if (collection == this) {
+   boolean modified = _size != 0;
+   clear();
+   return modified;
+  }
+  return removeIf(collection::contains);
+ }
+
+ /**
+  * Removes all of my elements that are <i>not</i> contained in the specified
+  * collection, in a single pass.
+  *
+  * @param collection the collection of elements to retain
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean retainAll(CharCollection collection) {
+  if (collection == this) {
+   return false;
+  }
+  return removeIf(element -> !collection.contains(element));
+ }
+
+ @Override
+ public void forEach(CharConsumer action) {
+  Objects.requireNonNull(action);
+  for (long i = 0; i < _size; i++) {
+   action.accept(_segments[segment(i)][offset(i)]);
+  }
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Increases my capacity, if necessary, to ensure that I can hold at least the
+  * number of elements specified by the minimum capacity argument without
+  * growing. Only my last segment is ever reallocated; full segments stay in
+  * place.
+  *
+  * @param mincap
+  */
+ public void ensureCapacity(long mincap) {
+  _modCount++;
+  if (mincap > _capacity) {
+   if (mincap > MAX_CAPACITY) {
+    throw new IllegalArgumentException("capacity " + mincap);
+   }
+   long newcap = Math.min(_capacity + (_capacity >> 1) + 1, MAX_CAPACITY);
+   resize(Math.max(newcap, mincap));
+  }
+ }
+
+ /**
+  * Reduce my capacity, if necessary, to match my current
+  * {@link #size64 size}.
+  */
+ public void trimToSize() {
+  _modCount++;
+  if (_size < _capacity) {
+   resize(_size);
+  }
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private void writeObject(ObjectOutputStream out) throws IOException {
+  out.defaultWriteObject();
+  out.writeLong(_capacity);
+  for (long i = 0; i < _size; i++) {
+   out.writeChar(_segments[segment(i)][offset(i)]);
+  }
+ }
+
+ private void readObject(ObjectInputStream in) throws IOException,
+  ClassNotFoundException {
+  in.defaultReadObject();
+  in.readLong(); // the writer's capacity, not needed to hold my elements
+  if (_size < 0 || _size > MAX_CAPACITY) {
+   throw new InvalidObjectException("size " + _size);
+  }
+  _segments = EMPTY_SEGMENTS;
+  resize(_size);
+  for (long i = 0; i < _size; i++) {
+   _segments[segment(i)][offset(i)] = in.readChar();
+  }
+ }
+
+ /**
+  * Reallocates my segments to hold exactly <i>capacity</i> elements: full
+  * segments followed by one that holds the remainder.
+  */
+ private void resize(long capacity) {
+  int count = segmentsFor(capacity);
+  char[][] segments = Arrays.copyOf(_segments, count);
+  for (int s = Math.max(0, Math.min(_segments.length, count) - 1); s < count;
+   s++) {
+   int length = (int) Math.min(SEGMENT_SIZE,
+    capacity - ((long) s << SEGMENT_SHIFT));
+   if (segments[s] == null) {
+    segments[s] = new char[length];
+   } else if (segments[s].length != length) {
+    segments[s] = Arrays.copyOf(segments[s], length);
+   }
+  }
+  _segments = segments;
+  _capacity = capacity;
+ }
+
+ /**
+  * Moves <i>length</i> elements from index <i>from</i> to index <i>to</i>,
+  * one segment range at a time, copying overlapping ranges as if through a
+  * temporary copy of the whole range.
+  */
+ private void move(long from, long to, long length) {
+  if (length <= 0 || from == to) {
+   return;
+  }
+  if (from > to) {
+   for (long done = 0; done < length;) {
+    long src = from + done;
+    long dest = to + done;
+    int n = (int) Math.min(length - done,
+     SEGMENT_SIZE - Math.max(offset(src), offset(dest)));
+    System.arraycopy(_segments[segment(src)], offset(src),
+     _segments[segment(dest)], offset(dest), n);
+    done += n;
+   }
+  } else {
+   for (long remaining = length; remaining > 0;) {
+    long srcEnd = from + remaining;
+    long destEnd = to + remaining;
+    int n = (int) Math.min(remaining,
+     Math.min(offset(srcEnd - 1), offset(destEnd - 1)) + 1);
+    System.arraycopy(_segments[segment(srcEnd - n)], offset(srcEnd - n),
+     _segments[segment(destEnd - n)], offset(destEnd - n), n);
+    remaining -= n;
+   }
+  }
+ }
+
+ /**
+  * Makes room for <i>length</i> elements at <i>index</i>, shifting any
+  * subsequent elements to the right, and counts them in my size.
+  */
+ private void openGap(long index, long length) {
+  ensureCapacity(_size + length);
+  _modCount++;
+  move(index, index + length, _size - index);
+  _size += length;
+ }
+
+ private void checkRange(long index) {
+  if (index < 0 || index >= _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and less than " + _size + ", found " + index);
+  }
+ }
+
+ private void checkRangeIncludingEndpoint(long index) {
+  if (index < 0 || index > _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and at most " + _size + ", found " + index);
+  }
+ }
+
+ private void checkRange(long index, int length) {
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+ }
+
+ private static void checkArrayRange(char[] array, int offset, int length) {
+  if (offset < 0 || length < 0 || offset > array.length - length) {
+   throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset
+    + " + " + length + ") out of bounds for length " + array.length);
+  }
+ }
+
+ private void checkArraySize() {
+  if (_size > Integer.MAX_VALUE) {
+   throw new IllegalStateException(
+    "Size " + _size + " is too large for an array");
+  }
+ }
+
+ private static int segment(long index) {
+  return (int) (index >>> SEGMENT_SHIFT);
+ }
+
+ private static int offset(long index) {
+  return (int) (index & SEGMENT_MASK);
+ }
+
+ private static int segmentsFor(long capacity) {
+  return (int) ((capacity + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private static final char[][] EMPTY_SEGMENTS = new char[0][];
+
+ private transient char[][] _segments = null;
+ private transient long _capacity = 0;
+ private long _size = 0;
+ private transient int _modCount = 0;
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ private final class BigCharListIterator implements CharIterator {
+
+  @Override
+  public boolean hasNext() {
+   return _next < _size;
+  }
+
+  @Override
+  public char next() {
+   checkForComodification();
+   if (_next >= _size) {
+    throw new NoSuchElementException();
+   }
+   _last = _next++;
+   return _segments[segment(_last)][offset(_last)];
+  }
+
+  @Override
+  public void remove() {
+   checkForComodification();
+   if (_last == -1) {
+    throw new IllegalStateException();
+   }
+   removeElementAt(_last);
+   _next = _last;
+   _last = -1;
+   _expectedModCount = _modCount;
+  }
+
+  private void checkForComodification() {
+   if (_expectedModCount != _modCount) {
+    throw new ConcurrentModificationException();
+   }
+  }
+
+  private long _next = 0;
+  private long _last = -1;
+  private int _expectedModCount = _modCount;
+ }
+}
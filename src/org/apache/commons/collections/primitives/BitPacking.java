@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs runs of unsigned values of a fixed bit width into 64-bit words, the
+ * first value in the low bits of the first word. A run of <i>n</i> values of
+ * <i>b</i> bits takes <code>(n * b + 63) / 64</code> words, which are written
+ * in the byte order of the buffer.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+final class BitPacking {
+
+ private BitPacking() {
+ }
+
+ /**
+  * Returns the number of bytes taken by <i>length</i> packed values of
+  * <i>bits</i> bits.
+  */
+ static int packedSize(int length, int bits) {
+  return (int) (((long) length * bits + 63) >>> 6) << 3;
+ }
+
+ /**
+  * Writes the low <i>bits</i> bits, at most 32, of each of the given values.
+  */
+ static void pack(ByteBuffer out, int[] values, int offset, int length,
+  int bits) {
+  if (bits == 0) {
+   return;
+  }
+  long mask = (1L << bits) - 1;
+  long word = 0;
+  int used = 0;
+  for (int i = offset, end = offset + length; i < end; i++) {
+   long value = values[i] & mask;
+   word |= value << used;
+   used += bits;
+   if (used >= 64) {
+    out.putLong(word);
+    used -= 64;
+    word = used == 0 ? 0 : value >>> (bits - used);
+   }
+  }
+  if (used > 0) {
+   out.putLong(word);
+  }
+ }
+
+ /**
+  * Writes the low <i>bits</i> bits, at most 64, of each of the given values.
+  */
+ static void pack(ByteBuffer out, long[] values, int offset, int length,
+  int bits) {
+  if (bits == 0) {
+   return;
+  }
+  long mask = bits == 64 ? -1L : (1L << bits) - 1;
+  long word = 0;
+  int used = 0;
+  for (int i = offset, end = offset + length; i < end; i++) {
+   long value = values[i] & mask;
+   word |= value << used;
+   used += bits;
+   if (used >= 64) {
+    out.putLong(word);
+    used -= 64;
+    word = used == 0 ? 0 : value >>> (bits - used);
+   }
+  }
+  if (used > 0) {
+   out.putLong(word);
+  }
+ }
+
+ /**
+  * Reads values of <i>bits</i> bits, at most 32, written by
+  * {@link #pack(ByteBuffer, int[], int, int, int)}.
+  */
+ static void unpack(ByteBuffer in, int[] values, int offset, int length,
+  int bits) {
+  if (bits == 0) {
+   for (int i = offset, end = offset + length; i < end; i++) {
+    values[i] = 0;
+   }
+   return;
+  }
+  long mask = (1L << bits) - 1;
+  long word = 0;
+  int available = 0;
+  for (int i = offset, end = offset + length; i < end; i++) {
+   if (available >= bits) {
+    values[i] = (int) (word & mask);
+    word >>>= bits;
+    available -= bits;
+   } else {
+    long next = in.getLong();
+    values[i] = (int) ((word | (next << available)) & mask);
+    int needed = bits - available;
+    word = next >>> needed;
+    available = 64 - needed;
+   }
+  }
+ }
+
+ /**
+  * Reads values of <i>bits</i> bits, at most 64, written by
+  * {@link #pack(ByteBuffer, long[], int, int, int)}.
+  */
+ static void unpack(ByteBuffer in, long[] values, int offset, int length,
+  int bits) {
+  if (bits == 0) {
+   for (int i = offset, end = offset + length; i < end; i++) {
+    values[i] = 0;
+   }
+   return;
+  }
+  long mask = bits == 64 ? -1L : (1L << bits) - 1;
+  long word = 0;
+  int available = 0;
+  for (int i = offset, end = offset + length; i < end; i++) {
+   if (available >= bits) {
+    values[i] = word & mask;
+    word >>>= bits;
+    available -= bits;
+   } else {
+    long next = in.getLong();
+    values[i] = (word | (next << available)) & mask;
+    int needed = bits - available;
+    word = needed == 64 ? 0 : next >>> needed;
+    available = 64 - needed;
+   }
+  }
+ }
+}
@@ -0,0 +1,696 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link BooleanList} that packs its elements into an array of
+ * <code>long</code> words, one bit per element, using an eighth of the memory
+ * of an {@link ArrayBooleanList}. Inserting and removing shift the following
+ * elements a word at a time, and the bulk {@link #and and}, {@link #or or},
+ * {@link #xor xor} and {@link #andNot andNot} operations combine 64 elements
+ * per step. This implementation supports all optional methods.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class BitSetBooleanList extends RandomAccessBooleanList
+ implements Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ private static final int ADDRESS_BITS_PER_WORD = 6;
+ private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+ private static final long WORD_MASK = -1L;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty list with the default initial capacity.
+  */
+ public BitSetBooleanList() {
+  this(BITS_PER_WORD);
+ }
+
+ /**
+  * Construct an empty list with the given initial capacity.
+  *
+  * @param initialCapacity the number of elements I can hold without growing
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  */
+ public BitSetBooleanList(int initialCapacity) {
+  if (initialCapacity < 0) {
+   throw new IllegalArgumentException("capacity " + initialCapacity);
+  }
+  _words = new long[wordsFor(initialCapacity)];
+  _size = 0;
+ }
+
+ /**
+  * Constructs a list containing the elements of the given collection, in the
+  * order they are returned by that collection's iterator.
+  *
+  * @see BitSetBooleanList#addAll(BooleanCollection)
+  * @param that the non-<code>null</code> collection of <code>boolean</code>s to
+  * add
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public BitSetBooleanList(BooleanCollection that) {
+  this(that.size());
+  addAll(that);
+ }
+
+ /**
+  * Constructs a list by copying the specified array.
+  *
+  * @param array the array to initialize the collection with
+  * @throws NullPointerException if the array is <code>null</code>
+  */
+ public BitSetBooleanList(boolean[] array) {
+  this(array.length);
+  for (int i = 0; i < array.length; i++) {
+   if (array[i]) {
+    _words[i >>> ADDRESS_BITS_PER_WORD] |= 1L << i;
+   }
+  }
+  _size = array.length;
+ }
+
+ // BooleanList methods
+ //-------------------------------------------------------------------------
+ @Override
+ public boolean get(int index) {
+  checkRange(index);
+  return (_words[index >>> ADDRESS_BITS_PER_WORD] & (1L << index)) != 0;
+ }
+
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Removes the element at the specified position in (optional operation). Any
+  * subsequent elements are shifted to the left, subtracting one from their
+  * indices. Returns the element that was removed.
+  *
+  * @param index the index of the element to remove
+  * @return the value of the element that was removed
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public boolean removeElementAt(int index) {
+  boolean oldval = get(index);
+  incrModCount();
+  copyBits(_words, index + 1, _words, index, _size - index - 1);
+  _size--;
+  clearBits(_size, _size + 1);
+  return oldval;
+ }
+
+ /**
+  * Replaces the element at the specified position in me with the specified
+  * element (optional operation).
+  *
+  * @param index the index of the element to change
+  * @param element the value to be stored at the specified position
+  * @return the value previously stored at the specified position
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public boolean set(int index, boolean element) {
+  boolean oldval = get(index);
+  incrModCount();
+  if (element) {
+   _words[index >>> ADDRESS_BITS_PER_WORD] |= 1L << index;
+  } else {
+   _words[index >>> ADDRESS_BITS_PER_WORD] &= ~(1L << index);
+  }
+  return oldval;
+ }
+
+ /**
+  * Inserts the specified element at the specified position (optional
+  * operation). Shifts the element currently at that position (if any) and any
+  * subsequent elements to the right, increasing their indices.
+  *
+  * @param index the index at which to insert the element
+  * @param element the value to insert
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IllegalArgumentException if some aspect of the specified element
+  * prevents it from being added to me
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public void add(int index, boolean element) {
+  checkRangeIncludingEndpoint(index);
+  openGap(index, 1);
+  if (element) {
+   _words[index >>> ADDRESS_BITS_PER_WORD] |= 1L << index;
+  }
+ }
+
+ @Override
+ public void clear() {
+  incrModCount();
+  Arrays.fill(_words, 0, wordsFor(_size), 0L);
+  _size = 0;
+ }
+
+ @Override
+ public boolean addAll(BooleanCollection collection) {
+  return addAll(size(), collection);
+ }
+
+ @Override
+ public boolean addAll(int index, BooleanCollection collection) {
+  int length = collection.size();
+  if (length == 0) {
+   return false;
+  }
+  checkRangeIncludingEndpoint(index);
+  if (collection instanceof BitSetBooleanList) {
+   BitSetBooleanList that = (BitSetBooleanList) collection;
+   long[] words = that == this ? _words.clone() : that._words;
+   openGap(index, length);
+   copyBits(words, 0, _words, index, length);
+   return true;
+  }
+  boolean[] elements = collection.toArray();
+  openGap(index, length);
+  for (int i = 0; i < length; i++) {
+   if (elements[i]) {
+    int bit = index + i;
+    _words[bit >>> ADDRESS_BITS_PER_WORD] |= 1L << bit;
+   }
+  }
+  return true;
+ }
+
+ @Override
+ public int indexOf(boolean element) {
+  return element ? nextSetBit(0) : nextClearBit(0);
+ }
+
+ @Override
+ public boolean contains(boolean element) {
+  return indexOf(element) != -1;
+ }
+
+ @Override
+ protected void copyInto(int index, boolean[] dest, int destOffset,
+  int length) {
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+  for (int i = 0; i < length; i++) {
+   int bit = index + i;
+   dest[destOffset + i] =
+    (_words[bit >>> ADDRESS_BITS_PER_WORD] & (1L << bit)) != 0;
+  }
+ }
+
+ /**
+  * Removes all of my elements that are contained in the specified
+  * collection. Since every element I keep has the same value, I simply
+  * become a run of that value as long as its {@link #cardinality count}.
+  *
+  * @param collection the collection of elements to remove
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean removeAll(BooleanCollection collection) {
+  return batchRemove(collection, false);
+ }
+
+ /**
+  * Removes all of my elements that are <i>not</i> contained in the specified
+  * collection. Since every element I keep has the same value, I simply
+  * become a run of that value as long as its {@link #cardinality count}.
+  *
+  * @param collection the collection of elements to retain
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean retainAll(BooleanCollection collection) {
+  return batchRemove(collection, true);
+ }
+
+ /**
+  * Keeps exactly those elements whose presence in <i>collection</i> equals
+  * <i>retain</i>.
+  */
+ private boolean batchRemove(BooleanCollection collection, boolean retain) {
+  boolean keepTrue = collection.contains(true) == retain;
+  boolean keepFalse = collection.contains(false) == retain;
+  if (keepTrue && keepFalse) {
+   return false;
+  }
+  int kept = 0;
+  if (keepTrue || keepFalse) {
+   int trues = cardinality();
+   kept = keepTrue ? trues : _size - trues;
+  }
+  if (kept == _size) {
+   return false;
+  }
+  incrModCount();
+  clearBits(0, _size);
+  if (keepTrue) {
+   setBits(0, kept);
+  }
+  _size = kept;
+  return true;
+ }
+
+ /**
+  * Removes all of my elements that satisfy the given predicate, in a single
+  * pass that compacts the remaining elements towards the front of my words.
+  * If the predicate throws, the elements it has not yet been applied to are
+  * kept.
+  *
+  * @param filter a predicate which returns <code>true</code> for elements to
+  * be removed
+  * @return <code>true</code> iff any elements were removed
+  */
+ @Override
+ public boolean removeIf(BooleanPredicate filter) {
+  Objects.requireNonNull(filter);
+  long[] words = _words;
+  int size = _size;
+  int kept = 0;
+  int i = 0;
+  try {
+   for (; i < size; i++) {
+    long bit = words[i >>> ADDRESS_BITS_PER_WORD] & (1L << i);
+    if (!filter.test(bit != 0)) {
+     if (bit != 0) {
+      words[kept >>> ADDRESS_BITS_PER_WORD] |= 1L << kept;
+     } else {
+      words[kept >>> ADDRESS_BITS_PER_WORD] &= ~(1L << kept);
+     }
+     kept++;
+    }
+   }
+  } finally {
+   copyBits(words, i, words, kept, size - i);
+   int newSize = kept + size - i;
+   if (newSize != size) {
+    incrModCount();
+    clearBits(newSize, size);
+    _size = newSize;
+   }
+  }
+  return kept != size;
+ }
+
+ @Override
+ public void forEach(BooleanConsumer action) {
+  Objects.requireNonNull(action);
+  long[] words = _words;
+  for (int i = 0, size = _size; i < size; i++) {
+   action.accept((words[i >>> ADDRESS_BITS_PER_WORD] & (1L << i)) != 0);
+  }
+ }
+
+ // bit methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns the number of my elements that are <code>true</code>.
+  *
+  * @return the number of <code>true</code> elements
+  */
+ public int cardinality() {
+  int count = 0;
+  for (int i = 0, n = wordsFor(_size); i < n; i++) {
+   count += Long.bitCount(_words[i]);
+  }
+  return count;
+ }
+
+ /**
+  * Returns the index of the first <code>true</code> element at or after
+  * <i>fromIndex</i>, or <code>-1</code> if there is none.
+  *
+  * @param fromIndex the index to start looking from
+  * @return the index of the next <code>true</code> element, or
+  * <code>-1</code>
+  * @throws IndexOutOfBoundsException if <i>fromIndex</i> is negative
+  */
+ public int nextSetBit(int fromIndex) {
+  checkFromIndex(fromIndex);
+  if (fromIndex >= _size) {
+   return -1;
+  }
+  int u = fromIndex >>> ADDRESS_BITS_PER_WORD;
+  int limit = wordsFor(_size);
+  long word = _words[u] & (WORD_MASK << fromIndex);
+  while (true) {
+   if (word != 0) {
+    return (u << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+   }
+   if (++u == limit) {
+    return -1;
+   }
+   word = _words[u];
+  }
+ }
+
+ /**
+  * Returns the index of the first <code>false</code> element at or after
+  * <i>fromIndex</i>, or <code>-1</code> if there is none.
+  *
+  * @param fromIndex the index to start looking from
+  * @return the index of the next <code>false</code> element, or
+  * <code>-1</code>
+  * @throws IndexOutOfBoundsException if <i>fromIndex</i> is negative
+  */
+ public int nextClearBit(int fromIndex) {
+  checkFromIndex(fromIndex);
+  if (fromIndex >= _size) {
+   return -1;
+  }
+  int u = fromIndex >>> ADDRESS_BITS_PER_WORD;
+  int limit = wordsFor(_size);
+  long word = ~_words[u] & (WORD_MASK << fromIndex);
+  while (true) {
+   if (word != 0) {
+    int index =
+     (u << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+    return index < _size ? index : -1;
+   }
+   if (++u == limit) {
+    return -1;
+   }
+   word = ~_words[u];
+  }
+ }
+
+ /**
+  * Sets each of my elements to the logical and of it and the element at the
+  * same index in <i>that</i>. Elements past the end of <i>that</i> count as
+  * <code>false</code>; my size does not change.
+  *
+  * @param that the list to combine with me
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public void and(BitSetBooleanList that) {
+  incrModCount();
+  int n = wordsFor(_size);
+  int common = Math.min(n, wordsFor(that._size));
+  for (int i = 0; i < common; i++) {
+   _words[i] &= that._words[i];
+  }
+  Arrays.fill(_words, common, n, 0L);
+ }
+
+ /**
+  * Sets each of my elements to the logical or of it and the element at the
+  * same index in <i>that</i>. Elements past the end of <i>that</i> count as
+  * <code>false</code>; elements of <i>that</i> past my end are ignored.
+  *
+  * @param that the list to combine with me
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public void or(BitSetBooleanList that) {
+  incrModCount();
+  int common = commonWords(that);
+  for (int i = 0; i < common; i++) {
+   _words[i] |= that._words[i];
+  }
+  clearTail();
+ }
+
+ /**
+  * Sets each of my elements to the logical exclusive or of it and the element
+  * at the same index in <i>that</i>. Elements past the end of <i>that</i>
+  * count as <code>false</code>; elements of <i>that</i> past my end are
+  * ignored.
+  *
+  * @param that the list to combine with me
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public void xor(BitSetBooleanList that) {
+  incrModCount();
+  int common = commonWords(that);
+  for (int i = 0; i < common; i++) {
+   _words[i] ^= that._words[i];
+  }
+  clearTail();
+ }
+
+ /**
+  * Clears each of my elements whose counterpart at the same index in
+  * <i>that</i> is <code>true</code>. Elements past the end of <i>that</i>
+  * count as <code>false</code>; my size does not change.
+  *
+  * @param that the list whose <code>true</code> elements clear mine
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public void andNot(BitSetBooleanList that) {
+  incrModCount();
+  int common = commonWords(that);
+  for (int i = 0; i < common; i++) {
+   _words[i] &= ~that._words[i];
+  }
+ }
+
+ /**
+  * Returns my elements packed into a new array of <code>long</code>s, element
+  * <i>i</i> being bit <code>i % 64</code> of word <code>i / 64</code>.
+  *
+  * @return a new array holding my elements as bits
+  */
+ public long[] toLongArray() {
+  return Arrays.copyOf(_words, wordsFor(_size));
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Increases my capacity, if necessary, to ensure that I can hold at least the
+  * number of elements specified by the minimum capacity argument without
+  * growing.
+  *
+  * @param mincap
+  */
+ public void ensureCapacity(int mincap) {
+  incrModCount();
+  int minwords = wordsFor(mincap);
+  if (minwords > _words.length) {
+   int newcap = (_words.length * 3) / 2 + 1;
+   _words = Arrays.copyOf(_words, newcap < minwords ? minwords : newcap);
+  }
+ }
+
+ /**
+  * Reduce my capacity, if necessary, to match my current {@link #size size}.
+  */
+ public void trimToSize() {
+  incrModCount();
+  int n = wordsFor(_size);
+  if (n < _words.length) {
+   _words = Arrays.copyOf(_words, n);
+  }
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private void writeObject(ObjectOutputStream out) throws IOException {
+  out.defaultWriteObject();
+  out.writeInt(_words.length);
+  for (int i = 0, n = wordsFor(_size); i < n; i++) {
+   out.writeLong(_words[i]);
+  }
+ }
+
+ private void readObject(ObjectInputStream in) throws IOException,
+  ClassNotFoundException {
+  in.defaultReadObject();
+  in.readInt(); // the writer's word count, not needed to hold my bits
+  if (_size < 0) {
+   throw new InvalidObjectException("size " + _size);
+  }
+  _words = new long[wordsFor(_size)];
+  for (int i = 0, n = _words.length; i < n; i++) {
+   _words[i] = in.readLong();
+  }
+ }
+
+ private void checkRange(int index) {
+  if (index < 0 || index >= _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and less than " + _size + ", found " + index);
+  }
+ }
+
+ private void checkRangeIncludingEndpoint(int index) {
+  if (index < 0 || index > _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and at most " + _size + ", found " + index);
+  }
+ }
+
+ private static void checkFromIndex(int fromIndex) {
+  if (fromIndex < 0) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0, found " + fromIndex);
+  }
+ }
+
+ /**
+  * Returns the number of words covering both my elements and those of
+  * <i>that</i>.
+  */
+ private int commonWords(BitSetBooleanList that) {
+  return Math.min(wordsFor(_size), wordsFor(that._size));
+ }
+
+ /**
+  * Clears the bits of my last word that lie past my size, which bulk
+  * operations may have set from a longer list.
+  */
+ private void clearTail() {
+  if ((_size & (BITS_PER_WORD - 1)) != 0) {
+   _words[_size >>> ADDRESS_BITS_PER_WORD] &= ~(WORD_MASK << _size);
+  }
+ }
+
+ /**
+  * Makes room for <i>length</i> <code>false</code> elements at <i>index</i>,
+  * shifting any subsequent elements to the right, and counts them in my size.
+  */
+ private void openGap(int index, int length) {
+  incrModCount();
+  ensureCapacity(_size + length);
+  copyBits(_words, index, _words, index + length, _size - index);
+  clearBits(index, index + length);
+  _size += length;
+ }
+
+ /**
+  * Clears the bits from <i>fromIndex</i>, inclusive, to <i>toIndex</i>,
+  * exclusive, keeping the bits past my size <code>false</code>.
+  */
+ private void clearBits(int fromIndex, int toIndex) {
+  fillBits(fromIndex, toIndex, false);
+ }
+
+ private void setBits(int fromIndex, int toIndex) {
+  fillBits(fromIndex, toIndex, true);
+ }
+
+ private void fillBits(int fromIndex, int toIndex, boolean value) {
+  if (fromIndex >= toIndex) {
+   return;
+  }
+  int first = fromIndex >>> ADDRESS_BITS_PER_WORD;
+  int last = (toIndex - 1) >>> ADDRESS_BITS_PER_WORD;
+  long firstMask = WORD_MASK << fromIndex;
+  long lastMask = WORD_MASK >>> -toIndex;
+  if (first == last) {
+   fillWord(first, firstMask & lastMask, value);
+  } else {
+   fillWord(first, firstMask, value);
+   Arrays.fill(_words, first + 1, last, value ? WORD_MASK : 0L);
+   fillWord(last, lastMask, value);
+  }
+ }
+
+ private void fillWord(int u, long mask, boolean value) {
+  if (value) {
+   _words[u] |= mask;
+  } else {
+   _words[u] &= ~mask;
+  }
+ }
+
+ /**
+  * Copies <i>length</i> bits from <i>src</i> starting at <i>srcPos</i> to
+  * <i>dest</i> starting at <i>destPos</i>, 64 bits at a time. Like
+  * <code>System.arraycopy</code>, overlapping ranges of the same array are
+  * copied as if through a temporary buffer.
+  */
+ private static void copyBits(long[] src, int srcPos, long[] dest,
+  int destPos, int length) {
+  if (src == dest && srcPos < destPos) {
+   for (int remaining = length; remaining > 0;) {
+    int n = Math.min(remaining, BITS_PER_WORD);
+    remaining -= n;
+    writeBits(dest, destPos + remaining, readBits(src, srcPos + remaining),
+     n);
+   }
+  } else {
+   for (int done = 0; done < length; done += BITS_PER_WORD) {
+    int n = Math.min(length - done, BITS_PER_WORD);
+    writeBits(dest, destPos + done, readBits(src, srcPos + done), n);
+   }
+  }
+ }
+
+ /**
+  * Returns the 64 bits of <i>words</i> starting at <i>pos</i>, reading bits
+  * past the end of the array as zero.
+  */
+ private static long readBits(long[] words, int pos) {
+  int u = pos >>> ADDRESS_BITS_PER_WORD;
+  long bits = words[u] >>> pos;
+  if ((pos & (BITS_PER_WORD - 1)) != 0 && u + 1 < words.length) {
+   bits |= words[u + 1] << -pos;
+  }
+  return bits;
+ }
+
+ /**
+  * Stores the low <i>n</i> bits of <i>bits</i>, where <i>n</i> is between 1
+  * and 64, into <i>words</i> starting at <i>pos</i>.
+  */
+ private static void writeBits(long[] words, int pos, long bits, int n) {
+  int u = pos >>> ADDRESS_BITS_PER_WORD;
+  int shift = pos & (BITS_PER_WORD - 1);
+  long mask = WORD_MASK >>> -n;
+  bits &= mask;
+  words[u] = (words[u] & ~(mask << shift)) | (bits << shift);
+  int spill = shift + n - BITS_PER_WORD;
+  if (spill > 0) {
+   long high = WORD_MASK >>> -spill;
+   words[u + 1] = (words[u + 1] & ~high) | (bits >>> -shift);
+  }
+ }
+
+ private static int wordsFor(int bits) {
+  return (int) (((long) bits + BITS_PER_WORD - 1) >>> ADDRESS_BITS_PER_WORD);
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private transient long[] _words = null;
+ private int _size = 0;
+}
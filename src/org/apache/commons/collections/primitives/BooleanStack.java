@@ -46,9 +46,7 @@ public class BooleanStack {
   * @param bits the array to add
   */
  public BooleanStack(boolean[] bits) {
-  for (int ii = 0; ii < bits.length; ii++) {
-   list.add(bits[ii]);
-  }
+  list.addAll(bits, 0, bits.length);
  }
 
  /**
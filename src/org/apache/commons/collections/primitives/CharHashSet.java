@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link CharCollection} of <code>char</code>s that contains no duplicate
+ * elements, backed by an open addressing hash table with linear probing.
+ * Elements are stored directly in a primitive array, so adding an
+ * element never allocates, and {@link #contains}, {@link #add} and
+ * {@link #removeElement} run in expected constant time.
+ * <p>
+ * The table is resized when the number of elements exceeds the load factor
+ * times the table length. Removal shifts later entries of the probe sequence
+ * back rather than leaving tombstones, so lookups do not degrade after many
+ * removals.
+ * <p>
+ * The iterator makes no guarantee as to the order of the elements.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class CharHashSet extends AbstractCharCollection implements
+ Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty set with the default expected size and load factor.
+  */
+ public CharHashSet() {
+  this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+ }
+
+ /**
+  * Construct an empty set able to hold <i>expectedSize</i> elements without
+  * resizing, using the default load factor.
+  *
+  * @param expectedSize the number of elements the set should hold
+  * @throws IllegalArgumentException when <i>expectedSize</i> is negative
+  */
+ public CharHashSet(int expectedSize) {
+  this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+ }
+
+ /**
+  * Construct an empty set able to hold <i>expectedSize</i> elements without
+  * resizing.
+  *
+  * @param expectedSize the number of elements the set should hold
+  * @param loadFactor the maximum fill ratio of the table, strictly between
+  * <code>0</code> and <code>1</code>
+  * @throws IllegalArgumentException when <i>expectedSize</i> is negative or
+  * <i>loadFactor</i> is out of range
+  */
+ public CharHashSet(int expectedSize, float loadFactor) {
+  PrimitiveHash.checkExpectedSize(expectedSize);
+  PrimitiveHash.checkLoadFactor(loadFactor);
+  _loadFactor = loadFactor;
+  allocate(PrimitiveHash.tableSize(expectedSize, loadFactor));
+ }
+
+ /**
+  * Constructs a set containing the distinct elements of the given collection.
+  *
+  * @param that the non-<code>null</code> collection of <code>char</code>s to
+  * add
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public CharHashSet(CharCollection that) {
+  this(that.size());
+  addAll(that);
+ }
+
+ /**
+  * Constructs a set containing the distinct elements of the given array.
+  *
+  * @param array the array to initialize the set with
+  * @throws NullPointerException if the array is <code>null</code>
+  */
+ public CharHashSet(char[] array) {
+  this(array.length);
+  for (int i = 0; i < array.length; i++) {
+   add(array[i]);
+  }
+ }
+
+ // CharCollection methods
+ //-------------------------------------------------------------------------
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ @Override
+ public boolean contains(char element) {
+  char key = element;
+  if (key == 0) {
+   return _containsZero;
+  }
+  char[] keys = _keys;
+  int mask = keys.length - 1;
+  int pos = PrimitiveHash.mix(key) & mask;
+  char curr;
+  while ((curr = keys[pos]) != 0) {
+   if (curr == key) {
+    return true;
+   }
+   pos = (pos + 1) & mask;
+  }
+  return false;
+ }
+
+ @Override
+ public boolean add(char element) {
+  char key = element;
+  if (key == 0) {
+   if (_containsZero) {
+    return false;
+   }
+   _containsZero = true;
+  } else {
+   char[] keys = _keys;
+   int mask = keys.length - 1;
+   int pos = PrimitiveHash.mix(key) & mask;
+   char curr;
+   while ((curr = keys[pos]) != 0) {
+    if (curr == key) {
+     return false;
+    }
+    pos = (pos + 1) & mask;
+   }
+   keys[pos] = key;
+   if (++_occupied > _maxFill) {
+    rehash(_keys.length * 2);
+   }
+  }
+  _size++;
+  _modCount++;
+  return true;
+ }
+
+ @Override
+ public boolean removeElement(char element) {
+  char key = element;
+  if (key == 0) {
+   if (!_containsZero) {
+    return false;
+   }
+   _containsZero = false;
+  } else {
+   char[] keys = _keys;
+   int mask = keys.length - 1;
+   int pos = PrimitiveHash.mix(key) & mask;
+   char curr;
+   while ((curr = keys[pos]) != key) {
+    if (curr == 0) {
+     return false;
+    }
+    pos = (pos + 1) & mask;
+   }
+   shiftKeys(pos);
+   _occupied--;
+  }
+  _size--;
+  _modCount++;
+  return true;
+ }
+
+ @Override
+ public void clear() {
+  if (_size > 0) {
+   Arrays.fill(_keys, (char) 0);
+   _containsZero = false;
+   _occupied = 0;
+   _size = 0;
+  }
+  _modCount++;
+ }
+
+ @Override
+ public CharIterator iterator() {
+  return new CharHashSetIterator();
+ }
+
+ @Override
+ public char[] toArray() {
+  return toArray(new char[_size]);
+ }
+
+ @Override
+ public char[] toArray(char[] a) {
+  if (a.length < _size) {
+   a = new char[_size];
+  }
+  int i = 0;
+  if (_containsZero) {
+   a[i++] = 0;
+  }
+  char[] keys = _keys;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0) {
+    a[i++] = keys[pos];
+   }
+  }
+  return a;
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Grows my table, if necessary, so that I can hold at least
+  * <i>expectedSize</i> elements without resizing.
+  *
+  * @param expectedSize the number of elements I should be able to hold
+  */
+ public void ensureCapacity(int expectedSize) {
+  int needed = PrimitiveHash.tableSize(expectedSize, _loadFactor);
+  if (needed > _keys.length) {
+   rehash(needed);
+  }
+ }
+
+ /**
+  * Reduce my table, if possible, to the smallest length that holds my current
+  * {@link #size size} within my load factor.
+  */
+ public void trimToSize() {
+  int needed = PrimitiveHash.tableSize(_size, _loadFactor);
+  if (needed < _keys.length) {
+   rehash(needed);
+  }
+ }
+
+ // Object methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns <code>true</code> iff <i>that</i> is a <code>CharHashSet</code>
+  * containing exactly the same elements as me.
+  *
+  * @param that the object to compare to me
+  * @return <code>true</code> iff <i>that</i> is an equal set
+  */
+ @Override
+ public boolean equals(Object that) {
+  if (this == that) {
+   return true;
+  } else if (that instanceof CharHashSet) {
+   CharHashSet thatSet = (CharHashSet) that;
+   return _size == thatSet.size() && containsAll(thatSet);
+  } else {
+   return false;
+  }
+ }
+
+ /**
+  * Returns my hash code, which is the sum of the hash codes of my elements as
+  * defined by {@link Character#hashCode()}, so that it matches the hash code
+  * of a {@link java.util.Set Set} of the same elements.
+  *
+  * @return my hash code
+  */
+ @Override
+ public int hashCode() {
+  int hash = 0;
+  char[] keys = _keys;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0) {
+    hash += keys[pos];
+   }
+  }
+  return hash;
+ }
+
+ @Override
+ public String toString() {
+  StringBuilder buf = new StringBuilder();
+  buf.append("[");
+  for (CharIterator iter = iterator(); iter.hasNext();) {
+   buf.append(iter.next());
+   if (iter.hasNext()) {
+    buf.append(", ");
+   }
+  }
+  buf.append("]");
+  return buf.toString();
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private void allocate(int tableSize) {
+  _keys = new char[tableSize];
+  _maxFill = PrimitiveHash.maxFill(tableSize, _loadFactor);
+ }
+
+ private void rehash(int tableSize) {
+  char[] oldKeys = _keys;
+  allocate(tableSize);
+  char[] keys = _keys;
+  int mask = keys.length - 1;
+  for (int i = 0; i < oldKeys.length; i++) {
+   char key = oldKeys[i];
+   if (key != 0) {
+    int pos = PrimitiveHash.mix(key) & mask;
+    while (keys[pos] != 0) {
+     pos = (pos + 1) & mask;
+    }
+    keys[pos] = key;
+   }
+  }
+  _modCount++;
+ }
+
+ /**
+  * Empties slot <i>pos</i> and moves back any later entries of the probe
+  * sequence that would otherwise become unreachable.
+  */
+ private void shiftKeys(int pos) {
+  char[] keys = _keys;
+  int mask = keys.length - 1;
+  int last;
+  for (;;) {
+   pos = ((last = pos) + 1) & mask;
+   char curr;
+   for (;;) {
+    if ((curr = keys[pos]) == 0) {
+     keys[last] = 0;
+     return;
+    }
+    int slot = PrimitiveHash.mix(curr) & mask;
+    if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+     break;
+    }
+    pos = (pos + 1) & mask;
+   }
+   keys[last] = curr;
+  }
+ }
+
+ private void writeObject(ObjectOutputStream out) throws IOException {
+  out.defaultWriteObject();
+  out.writeInt(_size);
+  if (_containsZero) {
+   out.writeChar(0);
+  }
+  char[] keys = _keys;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0) {
+    out.writeChar(keys[pos]);
+   }
+  }
+ }
+
+ private void readObject(ObjectInputStream in) throws IOException,
+  ClassNotFoundException {
+  in.defaultReadObject();
+  int size = in.readInt();
+  allocate(PrimitiveHash.tableSize(size, _loadFactor));
+  for (int i = 0; i < size; i++) {
+   add(in.readChar());
+  }
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private final float _loadFactor;
+ private transient char[] _keys = null;
+ private transient boolean _containsZero = false;
+ private transient int _occupied = 0;
+ private transient int _maxFill = 0;
+ private transient int _size = 0;
+ private transient int _modCount = 0;
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ /**
+  * Walks the table from the top down. Removing an element can move entries
+  * from the bottom of the table, which have not been visited yet, across the
+  * wrap-around into the visited part; those are remembered and returned at
+  * the end.
+  */
+ private class CharHashSetIterator implements CharIterator {
+
+  CharHashSetIterator() {
+   _pos = _keys.length;
+   _remaining = _size;
+   _zeroPending = _containsZero;
+   _expectedModCount = _modCount;
+  }
+
+  @Override
+  public boolean hasNext() {
+   assertNotComodified();
+   return _remaining > 0;
+  }
+
+  @Override
+  public char next() {
+   assertNotComodified();
+   if (_remaining == 0) {
+    throw new NoSuchElementException();
+   }
+   _remaining--;
+   if (_zeroPending) {
+    _zeroPending = false;
+    _last = ZERO;
+    return 0;
+   }
+   char[] keys = _keys;
+   while (--_pos >= 0) {
+    if (keys[_pos] != 0) {
+     _last = _pos;
+     return keys[_pos];
+    }
+   }
+   _last = WRAPPED;
+   _lastKey = _wrapped.get(_wrappedIndex++);
+   return _lastKey;
+  }
+
+  @Override
+  public void remove() {
+   assertNotComodified();
+   if (_last == NONE) {
+    throw new IllegalStateException();
+   }
+   if (_last == ZERO) {
+    _containsZero = false;
+    _size--;
+    _modCount++;
+   } else if (_last == WRAPPED) {
+    removeElement(_lastKey);
+   } else {
+    shiftKeys(_last);
+    _occupied--;
+    _size--;
+    _modCount++;
+   }
+   _last = NONE;
+   _expectedModCount = _modCount;
+  }
+
+  /**
+   * Like {@link CharHashSet#shiftKeys}, but remembers entries that move from
+   * the unvisited bottom of the table into the visited top.
+   */
+  private void shiftKeys(int pos) {
+   char[] keys = _keys;
+   int mask = keys.length - 1;
+   int last;
+   for (;;) {
+    pos = ((last = pos) + 1) & mask;
+    char curr;
+    for (;;) {
+     if ((curr = keys[pos]) == 0) {
+      keys[last] = 0;
+      return;
+     }
+     int slot = PrimitiveHash.mix(curr) & mask;
+     if (last <= pos ? last >= slot || slot > pos
+      : last >= slot && slot > pos) {
+      break;
+     }
+     pos = (pos + 1) & mask;
+    }
+    if (pos < last) {
+     if (_wrapped == null) {
+      _wrapped = new ArrayCharList(2);
+     }
+     _wrapped.add(keys[pos]);
+    }
+    keys[last] = curr;
+   }
+  }
+
+  private void assertNotComodified() {
+   if (_expectedModCount != _modCount) {
+    throw new ConcurrentModificationException();
+   }
+  }
+
+  private static final int NONE = -1;
+  private static final int ZERO = -2;
+  private static final int WRAPPED = -3;
+
+  private int _pos;
+  private int _remaining;
+  private boolean _zeroPending;
+  private int _last = NONE;
+  private char _lastKey;
+  private ArrayCharList _wrapped = null;
+  private int _wrappedIndex = 0;
+  private int _expectedModCount;
+ }
+}
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An unbounded priority queue of <code>char</code>s, held in an array as a
+ * binary or, optionally, <i>d</i>-ary heap. The head of the queue is its
+ * least element according to the queue's {@link CharComparator}; the natural
+ * ordering makes it a min-queue, and
+ * <code>CharComparator.naturalOrder().reversed()</code> a max-queue. Elements
+ * are never boxed, so a loop of {@link #poll poll} calls allocates nothing.
+ * <p>
+ * {@link #add add}, {@link #poll poll} and {@link #replaceTop replaceTop}
+ * take logarithmic time, {@link #peek peek} constant time, and building a
+ * queue from a collection linear time. A heap of higher arity is shallower,
+ * making additions cheaper and removals of the head, which compare every
+ * child of a node, costlier.
+ * <p>
+ * My {@link #iterator iterator} returns the elements in no particular order
+ * and does not support removal; use {@link #removeElement removeElement} or
+ * {@link #removeIf removeIf} instead.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class CharPriorityQueue extends AbstractCharCollection {
+
+ private static final int DEFAULT_CAPACITY = 11;
+
+ private static final char[] EMPTY_DATA = new char[0];
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty binary min-queue.
+  */
+ public CharPriorityQueue() {
+  this(DEFAULT_CAPACITY, 2, CharComparator.naturalOrder());
+ }
+
+ /**
+  * Construct an empty binary queue ordered by the given comparator.
+  *
+  * @param comparator the ordering of my elements
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public CharPriorityQueue(CharComparator comparator) {
+  this(DEFAULT_CAPACITY, 2, comparator);
+ }
+
+ /**
+  * Construct an empty <i>arity</i>-ary heap with the given initial capacity,
+  * ordered by the given comparator.
+  *
+  * @param initialCapacity the number of elements I can hold before growing
+  * @param arity the number of children of each node of the heap, at least
+  * <code>2</code>
+  * @param comparator the ordering of my elements
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  * or <i>arity</i> is less than <code>2</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public CharPriorityQueue(int initialCapacity, int arity,
+  CharComparator comparator) {
+  if (initialCapacity < 0) {
+   throw new IllegalArgumentException("capacity " + initialCapacity);
+  }
+  if (arity < 2) {
+   throw new IllegalArgumentException("arity " + arity);
+  }
+  _comparator = Objects.requireNonNull(comparator);
+  _arity = arity;
+  _heap = initialCapacity == 0 ? EMPTY_DATA : new char[initialCapacity];
+ }
+
+ /**
+  * Constructs a binary queue of the elements of the given collection, such
+  * as an {@link ArrayCharList}, ordered by the given comparator. The heap is
+  * built bottom up in linear time.
+  *
+  * @param that the elements to hold
+  * @param comparator the ordering of my elements
+  * @throws NullPointerException if <i>that</i> or <i>comparator</i> is
+  * <code>null</code>
+  */
+ public CharPriorityQueue(CharCollection that,
+  CharComparator comparator) {
+  _comparator = Objects.requireNonNull(comparator);
+  _arity = 2;
+  _heap = that.toArray();
+  _size = _heap.length;
+  heapify();
+ }
+
+ // CharCollection methods
+ //-------------------------------------------------------------------------
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Inserts the given element.
+  *
+  * @param element the value to insert
+  * @return <code>true</code>
+  */
+ @Override
+ public boolean add(char element) {
+  if (_size == _heap.length) {
+   grow();
+  }
+  _modCount++;
+  siftUp(_size++, element);
+  return true;
+ }
+
+ @Override
+ public void clear() {
+  _modCount++;
+  _size = 0;
+ }
+
+ @Override
+ public boolean contains(char element) {
+  return indexOf(element) >= 0;
+ }
+
+ @Override
+ public boolean removeElement(char element) {
+  int index = indexOf(element);
+  if (index < 0) {
+   return false;
+  }
+  removeAt(index);
+  return true;
+ }
+
+ @Override
+ public boolean removeIf(CharPredicate filter) {
+  Objects.requireNonNull(filter);
+  char[] heap = _heap;
+  int size = _size;
+  int kept = 0;
+  int i = 0;
+  try {
+   for (; i < size; i++) {
+    if (!filter.test(heap[i])) {
+     heap[kept++] = heap[i];
+    }
+   }
+  } finally {
+   System.arraycopy(heap, i, heap, kept, size - i);
+   _size = kept + size - i;
+   if (_size != size) {
+    _modCount++;
+    heapify();
+   }
+  }
+  return kept != size;
+ }
+
+ @Override
+ public boolean retainAll(CharCollection collection) {
+  return removeIf(element -> !collection.contains(element));
+ }
+
+ @Override
+ public void forEach(CharConsumer action) {
+  Objects.requireNonNull(action);
+  for (int i = 0; i < _size; i++) {
+   action.accept(_heap[i]);
+  }
+ }
+
+ /**
+  * Returns my elements in heap order, which begins with my head but is not
+  * otherwise sorted.
+  *
+  * @return a new array of my elements
+  */
+ @Override
+ public char[] toArray() {
+  return Arrays.copyOf(_heap, _size);
+ }
+
+ /**
+  * Returns an iterator over my elements in no particular order. The
+  * iterator does not support {@link CharIterator#remove remove}.
+  *
+  * @return an iterator over my elements
+  */
+ @Override
+ public CharIterator iterator() {
+  return new Itr();
+ }
+
+ // queue methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns my least element without removing it.
+  *
+  * @return my head
+  * @throws NoSuchElementException if I am empty
+  */
+ public char peek() {
+  if (_size == 0) {
+   throw new NoSuchElementException();
+  }
+  return _heap[0];
+ }
+
+ /**
+  * Removes and returns my least element.
+  *
+  * @return my former head
+  * @throws NoSuchElementException if I am empty
+  */
+ public char poll() {
+  if (_size == 0) {
+   throw new NoSuchElementException();
+  }
+  _modCount++;
+  char head = _heap[0];
+  char last = _heap[--_size];
+  if (_size > 0) {
+   siftDown(0, last);
+  }
+  return head;
+ }
+
+ /**
+  * Removes my least element and inserts the given one, in a single pass
+  * down the heap. This is faster than a {@link #poll poll} followed by an
+  * {@link #add add}, and is the core of a bounded top-<i>k</i> selection.
+  *
+  * @param element the value to insert
+  * @return my former head
+  * @throws NoSuchElementException if I am empty
+  */
+ public char replaceTop(char element) {
+  if (_size == 0) {
+   throw new NoSuchElementException();
+  }
+  _modCount++;
+  char head = _heap[0];
+  siftDown(0, element);
+  return head;
+ }
+
+ /**
+  * Returns the comparator ordering my elements.
+  *
+  * @return my comparator
+  */
+ public CharComparator comparator() {
+  return _comparator;
+ }
+
+ /**
+  * Returns the number of children of each node of my heap.
+  *
+  * @return my arity
+  */
+ public int arity() {
+  return _arity;
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private int indexOf(char element) {
+  for (int i = 0; i < _size; i++) {
+   if (Character.compare(_heap[i], element) == 0) {
+    return i;
+   }
+  }
+  return -1;
+ }
+
+ private void removeAt(int index) {
+  _modCount++;
+  char last = _heap[--_size];
+  if (index < _size && siftDown(index, last) == index) {
+   siftUp(index, last);
+  }
+ }
+
+ private void heapify() {
+  if (_size > 1) {
+   for (int i = (_size - 2) / _arity; i >= 0; i--) {
+    siftDown(i, _heap[i]);
+   }
+  }
+ }
+
+ /**
+  * Moves <i>element</i> from the hole at <i>index</i> up towards the root
+  * until its parent is not greater.
+  */
+ private void siftUp(int index, char element) {
+  while (index > 0) {
+   int parent = (index - 1) / _arity;
+   char value = _heap[parent];
+   if (_comparator.compare(element, value) >= 0) {
+    break;
+   }
+   _heap[index] = value;
+   index = parent;
+  }
+  _heap[index] = element;
+ }
+
+ /**
+  * Moves <i>element</i> from the hole at <i>index</i> down towards the
+  * leaves until no child is less, returning where it lands.
+  */
+ private int siftDown(int index, char element) {
+  int size = _size;
+  for (;;) {
+   long firstChild = (long) index * _arity + 1;
+   if (firstChild >= size) {
+    break;
+   }
+   int child = (int) firstChild;
+   int end = size - child > _arity ? child + _arity : size;
+   char value = _heap[child];
+   for (int c = child + 1; c < end; c++) {
+    if (_comparator.compare(_heap[c], value) < 0) {
+     child = c;
+     value = _heap[c];
+    }
+   }
+   if (_comparator.compare(element, value) <= 0) {
+    break;
+   }
+   _heap[index] = value;
+   index = child;
+  }
+  _heap[index] = element;
+  return index;
+ }
+
+ private void grow() {
+  if (_heap.length == Integer.MAX_VALUE) {
+   throw new IllegalStateException("Size would exceed " + Integer.MAX_VALUE);
+  }
+  long newcap = Math.max(_heap.length * 3L / 2 + 1, DEFAULT_CAPACITY);
+  _heap = Arrays.copyOf(_heap, (int) Math.min(newcap, Integer.MAX_VALUE));
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private char[] _heap;
+ private int _size = 0;
+ private final int _arity;
+ private final CharComparator _comparator;
+ private int _modCount = 0;
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ private final class Itr implements CharIterator {
+
+  @Override
+  public boolean hasNext() {
+   return _next < _size;
+  }
+
+  @Override
+  public char next() {
+   if (_expectedModCount != _modCount) {
+    throw new ConcurrentModificationException();
+   }
+   if (_next >= _size) {
+    throw new NoSuchElementException();
+   }
+   return _heap[_next++];
+  }
+
+  /**
+   * Unsupported: removing an element can move one not yet returned to a
+   * position already passed.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void remove() {
+   throw new UnsupportedOperationException();
+  }
+
+  private int _next = 0;
+  private final int _expectedModCount = _modCount;
+ }
+}
@@ -46,9 +46,7 @@ public class CharStack {
   * @param chars the array to add
   */
  public CharStack(char[] chars) {
-  for (int ii = 0; ii < chars.length; ii++) {
-   list.add(chars[ii]);
-  }
+  list.addAll(chars, 0, chars.length);
  }
 
  /**
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A streaming accumulator of the <i>k</i> greatest <code>char</code> values
+ * seen, according to a {@link CharComparator} (the natural ordering by
+ * default; pass a {@link CharComparator#reversed reversed} one to keep the
+ * <i>k</i> least). It holds at most <i>k</i> values in a
+ * {@link CharPriorityQueue} whose head is the least of them, so a value that
+ * does not beat the head is rejected with a single comparison and the whole
+ * pass takes <i>O(n log k)</i> time at worst and close to linear time on
+ * typical input.
+ * <p>
+ * An accumulator is a {@link CharConsumer}, and {@link #merge merge} combines
+ * two of them, so it can collect a parallel stream:
+ * <code>stream.collect(() -&gt; new CharTopK(k), CharTopK::add,
+ * CharTopK::merge)</code>.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class CharTopK implements CharConsumer {
+
+ /**
+  * The most values for which room is made up front, however large k is.
+  */
+ private static final int INITIAL_CAPACITY = 1024;
+
+ /**
+  * Construct an accumulator of the <i>k</i> greatest values.
+  *
+  * @param k the number of values to keep
+  * @throws IllegalArgumentException if <i>k</i> is negative
+  */
+ public CharTopK(int k) {
+  this(k, CharComparator.naturalOrder());
+ }
+
+ /**
+  * Construct an accumulator of the <i>k</i> greatest values according to the
+  * given comparator.
+  *
+  * @param k the number of values to keep
+  * @param comparator the ordering of the values
+  * @throws IllegalArgumentException if <i>k</i> is negative
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public CharTopK(int k, CharComparator comparator) {
+  if (k < 0) {
+   throw new IllegalArgumentException("k " + k);
+  }
+  _k = k;
+  _comparator = Objects.requireNonNull(comparator);
+  _queue =
+   new CharPriorityQueue(Math.min(k, INITIAL_CAPACITY), 2, comparator);
+ }
+
+ /**
+  * Offers a value, keeping it if it is among the <i>k</i> greatest so far.
+  *
+  * @param value the value to offer
+  */
+ public void add(char value) {
+  if (_queue.size() < _k) {
+   _queue.add(value);
+  } else if (_k > 0 && _comparator.compare(value, _queue.peek()) > 0) {
+   _queue.replaceTop(value);
+  }
+ }
+
+ /**
+  * Offers a value; the same as {@link #add add}.
+  *
+  * @param value the value to offer
+  */
+ @Override
+ public void accept(char value) {
+  add(value);
+ }
+
+ /**
+  * Offers each value of the given collection.
+  *
+  * @param values the values to offer
+  */
+ public void addAll(CharCollection values) {
+  for (CharIterator iter = values.iterator(); iter.hasNext();) {
+   add(iter.next());
+  }
+ }
+
+ /**
+  * Offers each value kept by <i>that</i>, so that I keep the <i>k</i>
+  * greatest values seen by either of us.
+  *
+  * @param that another accumulator
+  */
+ public void merge(CharTopK that) {
+  addAll(that._queue);
+ }
+
+ /**
+  * Returns the number of values I keep once I have seen that many.
+  *
+  * @return my <i>k</i>
+  */
+ public int k() {
+  return _k;
+ }
+
+ /**
+  * Returns the number of values I hold: <i>k</i>, or fewer if fewer values
+  * have been offered.
+  *
+  * @return my size
+  */
+ public int size() {
+  return _queue.size();
+ }
+
+ /**
+  * Returns the least value I hold, which is the <i>k</i>th greatest seen
+  * once I am full. A value must beat it to be kept.
+  *
+  * @return my least value
+  * @throws NoSuchElementException if I hold no values
+  */
+ public char threshold() {
+  return _queue.peek();
+ }
+
+ /**
+  * Returns a new list of the values I hold, greatest first.
+  *
+  * @return my values in descending order
+  */
+ public ArrayCharList toList() {
+  CharPriorityQueue copy = new CharPriorityQueue(_queue, _comparator);
+  char[] values = new char[copy.size()];
+  for (int i = values.length - 1; i >= 0; i--) {
+   values[i] = copy.poll();
+  }
+  return ArrayCharList.wrap(values);
+ }
+
+ /**
+  * Forgets all the values I hold.
+  */
+ public void clear() {
+  _queue.clear();
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private final int _k;
+ private final CharComparator _comparator;
+ private final CharPriorityQueue _queue;
+}
@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+
+/**
+ * An {@link DoubleList} backed by fixed-size chunks of <code>double</code>s.
+ * Unlike {@link ArrayDoubleList}, growing never copies my existing elements: a
+ * new chunk of {@link #CHUNK_SIZE} elements is allocated when the last one is
+ * full, so the cost of an append is bounded by the size of a chunk, and no
+ * chunk is large enough to need special handling by the garbage collector.
+ * {@link #get get} and {@link #set set} remain constant time. Inserting and
+ * removing elements before my end shift the following elements chunk by chunk.
+ * This implementation supports all optional methods.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class ChunkedDoubleList extends RandomAccessDoubleList
+ implements Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ /**
+  * The number of elements held by each chunk.
+  */
+ public static final int CHUNK_SIZE = 1 << 12;
+
+ private static final int CHUNK_SHIFT = 12;
+ private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty list. No chunk is allocated until the first element
+  * is added.
+  */
+ public ChunkedDoubleList() {
+  this(0);
+ }
+
+ /**
+  * Construct an empty list with the given initial capacity.
+  *
+  * @param initialCapacity
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  */
+ public ChunkedDoubleList(int initialCapacity) {
+  if (initialCapacity < 0) {
+   throw new IllegalArgumentException("capacity " + initialCapacity);
+  }
+  _chunks = new double[Math.max(chunksFor(initialCapacity), 1)][];
+  ensureCapacity(initialCapacity);
+ }
+
+ /**
+  * Constructs a list containing the elements of the given collection, in the
+  * order they are returned by that collection's iterator.
+  *
+  * @see ChunkedDoubleList#addAll(DoubleCollection)
+  * @param that the non-<code>null</code> collection of <code>double</code>s to
+  * add
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public ChunkedDoubleList(DoubleCollection that) {
+  this(that.size());
+  addAll(that);
+ }
+
+ /**
+  * Constructs a list by copying the specified array.
+  *
+  * @param array the array to initialize the collection with
+  * @throws NullPointerException if the array is <code>null</code>
+  */
+ public ChunkedDoubleList(double[] array) {
+  this(array.length);
+  _size = array.length;
+  copyFrom(array, 0, 0, array.length);
+ }
+
+ // DoubleList methods
+ //-------------------------------------------------------------------------
+ @Override
+ public double get(int index) {
+  checkRange(index);
+  return _chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+ }
+
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Removes the element at the specified position in (optional operation). Any
+  * subsequent elements are shifted to the left, subtracting one from their
+  * indices. Returns the element that was removed.
+  *
+  * @param index the index of the element to remove
+  * @return the value of the element that was removed
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public double removeElementAt(int index) {
+  checkRange(index);
+  incrModCount();
+  double oldval = _chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  move(index + 1, index, _size - index - 1);
+  _size--;
+  return oldval;
+ }
+
+ /**
+  * Replaces the element at the specified position in me with the specified
+  * element (optional operation).
+  *
+  * @param index the index of the element to change
+  * @param element the value to be stored at the specified position
+  * @return the value previously stored at the specified position
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public double set(int index, double element) {
+  checkRange(index);
+  incrModCount();
+  double[] chunk = _chunks[index >>> CHUNK_SHIFT];
+  double oldval = chunk[index & CHUNK_MASK];
+  chunk[index & CHUNK_MASK] = element;
+  return oldval;
+ }
+
+ /**
+  * Inserts the specified element at the specified position (optional
+  * operation). Shifts the element currently at that position (if any) and any
+  * subsequent elements to the right, increasing their indices.
+  *
+  * @param index the index at which to insert the element
+  * @param element the value to insert
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IllegalArgumentException if some aspect of the specified element
+  * prevents it from being added to me
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public void add(int index, double element) {
+  checkRangeIncludingEndpoint(index);
+  openGap(index, 1);
+  _chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = element;
+ }
+
+ @Override
+ public void clear() {
+  incrModCount();
+  _size = 0;
+ }
+
+ @Override
+ public boolean addAll(DoubleCollection collection) {
+  return addAll(size(), collection);
+ }
+
+ @Override
+ public boolean addAll(int index, DoubleCollection collection) {
+  checkRangeIncludingEndpoint(index);
+  double[] elements = collection.toArray();
+  if (elements.length == 0) {
+   return false;
+  }
+  openGap(index, elements.length);
+  copyFrom(elements, 0, index, elements.length);
+  return true;
+ }
+
+ @Override
+ protected void copyInto(int index, double[] dest, int destOffset,
+  int length) {
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+  for (int done = 0; done < length;) {
+   int pos = index + done;
+   int n = Math.min(length - done, CHUNK_SIZE - (pos & CHUNK_MASK));
+   System.arraycopy(_chunks[pos >>> CHUNK_SHIFT], pos & CHUNK_MASK, dest,
+    destOffset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Removes all of my elements that satisfy the given predicate, in a single
+  * pass that compacts the remaining elements towards the front. If the
+  * predicate throws, the elements it has not yet been applied to are kept.
+  *
+  * @param filter a predicate which returns <code>true</code> for elements to
+  * be removed
+  * @return <code>true</code> iff any elements were removed
+  */
+ @Override
+ public boolean removeIf(DoublePredicate filter) {
+  Objects.requireNonNull(filter);
+  int size = _size;
+  int kept = 0;
+  int i = 0;
+  try {
+   for (; i < size; i++) {
+    double element = _chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK];
+    if (!filter.test(element)) {
+     _chunks[kept >>> CHUNK_SHIFT][kept & CHUNK_MASK] = element;
+     kept++;
+    }
+   }
+  } finally {
+   move(i, kept, size - i);
+   int newSize = kept + size - i;
+   if (newSize != size) {
+    incrModCount();
+    _size = newSize;
+   }
+  }
+  return kept != size;
+ }
+
+ @Override
+ public void forEach(DoubleConsumer action) {
+  Objects.requireNonNull(action);
+  for (int c = 0, n = chunksFor(_size); c < n; c++) {
+   double[] chunk = _chunks[c];
+   int limit = Math.min(CHUNK_SIZE, _size - (c << CHUNK_SHIFT));
+   for (int i = 0; i < limit; i++) {
+    action.accept(chunk[i]);
+   }
+  }
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Allocates chunks, if necessary, to ensure that I can hold at least the
+  * number of elements specified by the minimum capacity argument without
+  * growing. My existing elements are never copied.
+  *
+  * @param mincap
+  */
+ public void ensureCapacity(int mincap) {
+  incrModCount();
+  int needed = chunksFor(mincap);
+  if (needed > _chunkCount) {
+   if (needed > _chunks.length) {
+    int newlen = (int) Math.min(_chunks.length * 2L, Integer.MAX_VALUE);
+    _chunks = Arrays.copyOf(_chunks, Math.max(newlen, needed));
+   }
+   for (int c = _chunkCount; c < needed; c++) {
+    _chunks[c] = new double[CHUNK_SIZE];
+   }
+   _chunkCount = needed;
+  }
+ }
+
+ /**
+  * Releases the chunks I do not need to hold my current
+  * {@link #size size}.
+  */
+ public void trimToSize() {
+  incrModCount();
+  int needed = chunksFor(_size);
+  if (needed < _chunkCount) {
+   Arrays.fill(_chunks, needed, _chunkCount, null);
+   _chunkCount = needed;
+  }
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private void writeObject(ObjectOutputStream out) throws IOException {
+  out.defaultWriteObject();
+  for (int i = 0; i < _size; i++) {
+   out.writeDouble(_chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK]);
+  }
+ }
+
+ private void readObject(ObjectInputStream in) throws IOException,
+  ClassNotFoundException {
+  in.defaultReadObject();
+  _chunks = new double[Math.max(chunksFor(_size), 1)][];
+  _chunkCount = 0;
+  ensureCapacity(_size);
+  for (int i = 0; i < _size; i++) {
+   _chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK] = in.readDouble();
+  }
+ }
+
+ private void checkRange(int index) {
+  if (index < 0 || index >= _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and less than " + _size + ", found " + index);
+  }
+ }
+
+ private void checkRangeIncludingEndpoint(int index) {
+  if (index < 0 || index > _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and at most " + _size + ", found " + index);
+  }
+ }
+
+ /**
+  * Makes room for <i>length</i> elements at <i>index</i>, shifting any
+  * subsequent elements to the right, and counts them in my size.
+  */
+ private void openGap(int index, int length) {
+  if (length > Integer.MAX_VALUE - _size) {
+   throw new IllegalStateException("Size would exceed " + Integer.MAX_VALUE);
+  }
+  incrModCount();
+  ensureCapacity(_size + length);
+  move(index, index + length, _size - index);
+  _size += length;
+ }
+
+ /**
+  * Copies <i>length</i> elements of <i>src</i>, starting at
+  * <i>srcOffset</i>, into me starting at <i>index</i>.
+  */
+ private void copyFrom(double[] src, int srcOffset, int index, int length) {
+  for (int done = 0; done < length;) {
+   int pos = index + done;
+   int n = Math.min(length - done, CHUNK_SIZE - (pos & CHUNK_MASK));
+   System.arraycopy(src, srcOffset + done, _chunks[pos >>> CHUNK_SHIFT],
+    pos & CHUNK_MASK, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Moves <i>length</i> elements from index <i>from</i> to index <i>to</i>,
+  * one chunk range at a time, copying overlapping ranges as if through a
+  * temporary copy of the whole range.
+  */
+ private void move(int from, int to, int length) {
+  if (length <= 0 || from == to) {
+   return;
+  }
+  if (from > to) {
+   for (int done = 0; done < length;) {
+    int src = from + done;
+    int dest = to + done;
+    int n = Math.min(length - done,
+     CHUNK_SIZE - Math.max(src & CHUNK_MASK, dest & CHUNK_MASK));
+    System.arraycopy(_chunks[src >>> CHUNK_SHIFT], src & CHUNK_MASK,
+     _chunks[dest >>> CHUNK_SHIFT], dest & CHUNK_MASK, n);
+    done += n;
+   }
+  } else {
+   for (int remaining = length; remaining > 0;) {
+    int srcLast = from + remaining - 1;
+    int destLast = to + remaining - 1;
+    int n = Math.min(remaining,
+     Math.min(srcLast & CHUNK_MASK, destLast & CHUNK_MASK) + 1);
+    System.arraycopy(_chunks[srcLast >>> CHUNK_SHIFT],
+     (srcLast & CHUNK_MASK) - n + 1, _chunks[destLast >>> CHUNK_SHIFT],
+     (destLast & CHUNK_MASK) - n + 1, n);
+    remaining -= n;
+   }
+  }
+ }
+
+ private static int chunksFor(int capacity) {
+  return (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private transient double[][] _chunks = null;
+ private transient int _chunkCount = 0;
+ private int _size = 0;
+}
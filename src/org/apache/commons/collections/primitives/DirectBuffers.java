@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory of direct buffers, and unmaps mapped ones, as
+ * soon as they are no longer needed rather than when the garbage collector
+ * finds them unreachable. The JDK offers no public way to do this, so the
+ * first available of <code>sun.misc.Unsafe.invokeCleaner</code> (Java 9
+ * and later) and the buffer's own cleaner (Java 8) is looked up
+ * reflectively. When neither can be used, releasing is left to the
+ * collector as before.
+ *
+ * @version $Revision$ $Date$
+ */
+final class DirectBuffers {
+
+ private static final Object UNSAFE;
+ private static final Method INVOKE_CLEANER;
+ private static final Method CLEANER;
+ private static final Method CLEAN;
+
+ static {
+  Object unsafe = null;
+  Method invokeCleaner = null;
+  try {
+   Class<?> type = Class.forName("sun.misc.Unsafe");
+   Method method = type.getMethod("invokeCleaner", ByteBuffer.class);
+   Field field = type.getDeclaredField("theUnsafe");
+   field.setAccessible(true);
+   unsafe = field.get(null);
+   invokeCleaner = method;
+  } catch (ReflectiveOperationException | RuntimeException e) {
+   // not Java 9 or later, or not permitted
+  }
+  Method cleaner = null;
+  Method clean = null;
+  if (invokeCleaner == null) {
+   try {
+    Method method = Class.forName("sun.nio.ch.DirectBuffer")
+     .getMethod("cleaner");
+    clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+    cleaner = method;
+   } catch (ReflectiveOperationException | RuntimeException e) {
+    clean = null;
+   }
+  }
+  UNSAFE = unsafe;
+  INVOKE_CLEANER = invokeCleaner;
+  CLEANER = cleaner;
+  CLEAN = clean;
+ }
+
+ private DirectBuffers() {
+ }
+
+ /**
+  * Releases the native memory of <i>buffer</i> now, or unmaps it if it is
+  * mapped. Neither <i>buffer</i> nor any view of it may be used afterwards;
+  * doing so may crash the virtual machine. Heap buffers, slices and
+  * duplicates are left alone.
+  *
+  * @param buffer the buffer to release, may be <code>null</code>
+  * @return <code>true</code> iff the memory was released now rather than
+  * left to the garbage collector
+  */
+ static boolean free(ByteBuffer buffer) {
+  if (buffer == null || !buffer.isDirect()) {
+   return false;
+  }
+  try {
+   if (INVOKE_CLEANER != null) {
+    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+    return true;
+   }
+   if (CLEANER != null) {
+    Object cleaner = CLEANER.invoke(buffer);
+    if (cleaner != null) {
+     CLEAN.invoke(cleaner);
+     return true;
+    }
+   }
+  } catch (ReflectiveOperationException | RuntimeException e) {
+   // a slice or duplicate, or not permitted: left to the collector
+  }
+  return false;
+ }
+}
@@ -0,0 +1,477 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link LongList} that stores its elements outside the Java heap, in direct
+ * {@link ByteBuffer}s. The heap holds only a small handle, so even very large
+ * lists add nothing to the garbage collector's marking and copying work. This
+ * implementation supports all optional methods.
+ * <p>
+ * My elements are split across buffers of {@link #CHUNK_SIZE} elements each,
+ * which lifts the two gigabyte limit of a single buffer: I can hold up to
+ * {@link #MAX_CAPACITY} elements. When I grow only my last, partly used
+ * buffer is reallocated. Buffers I no longer use, and all of my buffers when
+ * I am {@link #close closed}, are freed at once rather than when the garbage
+ * collector gets to them, where the running JDK allows it. Any use of me
+ * after I am closed throws an {@link IllegalStateException}.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class DirectLongList extends RandomAccessLongList
+ implements Closeable {
+
+ /**
+  * The largest number of elements I can hold.
+  */
+ public static final int MAX_CAPACITY = Integer.MAX_VALUE;
+
+ /**
+  * The number of elements held by each of my buffers.
+  */
+ public static final int CHUNK_SIZE = 1 << 26;
+
+ private static final int CHUNK_SHIFT = 26;
+ private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+ /**
+  * The number of elements moved per step when shifting or copying elements.
+  */
+ private static final int MOVE_CHUNK = 8192;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty list with the default initial capacity.
+  */
+ public DirectLongList() {
+  this(8);
+ }
+
+ /**
+  * Construct an empty list with the given initial capacity.
+  *
+  * @param initialCapacity
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  */
+ public DirectLongList(int initialCapacity) {
+  if (initialCapacity < 0) {
+   throw new IllegalArgumentException("capacity " + initialCapacity);
+  }
+  _buffers = new ByteBuffer[0];
+  _chunks = new LongBuffer[0];
+  reallocate(initialCapacity);
+  _size = 0;
+ }
+
+ /**
+  * Constructs a list containing the elements of the given collection, in the
+  * order they are returned by that collection's iterator.
+  *
+  * @see DirectLongList#addAll(LongCollection)
+  * @param that the non-<code>null</code> collection of <code>long</code>s to
+  * add
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public DirectLongList(LongCollection that) {
+  this(that.size());
+  addAll(that);
+ }
+
+ /**
+  * Constructs a list by copying the specified array.
+  *
+  * @param array the array to initialize the collection with
+  * @throws NullPointerException if the array is <code>null</code>
+  */
+ public DirectLongList(long[] array) {
+  this(array.length);
+  write(0, array, 0, array.length);
+  _size = array.length;
+ }
+
+ // LongList methods
+ //-------------------------------------------------------------------------
+ @Override
+ public long get(int index) {
+  checkRange(index);
+  return _chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+ }
+
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Removes the element at the specified position in (optional operation). Any
+  * subsequent elements are shifted to the left, subtracting one from their
+  * indices. Returns the element that was removed.
+  *
+  * @param index the index of the element to remove
+  * @return the value of the element that was removed
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public long removeElementAt(int index) {
+  checkRange(index);
+  incrModCount();
+  long oldval = _chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+  move(index + 1, index, _size - index - 1);
+  _size--;
+  return oldval;
+ }
+
+ /**
+  * Replaces the element at the specified position in me with the specified
+  * element (optional operation).
+  *
+  * @param index the index of the element to change
+  * @param element the value to be stored at the specified position
+  * @return the value previously stored at the specified position
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public long set(int index, long element) {
+  checkRange(index);
+  incrModCount();
+  LongBuffer chunk = _chunks[index >>> CHUNK_SHIFT];
+  long oldval = chunk.get(index & CHUNK_MASK);
+  chunk.put(index & CHUNK_MASK, element);
+  return oldval;
+ }
+
+ /**
+  * Inserts the specified element at the specified position (optional
+  * operation). Shifts the element currently at that position (if any) and any
+  * subsequent elements to the right, increasing their indices.
+  *
+  * @param index the index at which to insert the element
+  * @param element the value to insert
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws IllegalArgumentException if some aspect of the specified element
+  * prevents it from being added to me
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public void add(int index, long element) {
+  checkRangeIncludingEndpoint(index);
+  openGap(index, 1);
+  _chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, element);
+ }
+
+ @Override
+ public void clear() {
+  ensureOpen();
+  incrModCount();
+  _size = 0;
+ }
+
+ @Override
+ public boolean addAll(LongCollection collection) {
+  return addAll(size(), collection);
+ }
+
+ /**
+  * Inserts all of the elements in the specified collection into me, at the
+  * specified position (optional operation).
+  * <p>
+  * The elements are copied in small batches, through
+  * {@link RandomAccessLongList#copyInto copyInto} for random access lists and
+  * the collection's iterator otherwise, so the collection is never copied
+  * whole onto the heap. When the collection is me or a view of me, it is
+  * first copied into a temporary off-heap list.
+  *
+  * @param index the index at which to insert the first element from the
+  * specified collection
+  * @param collection the collection of elements to add
+  * @return <code>true</code> iff I changed as a result of this call
+  *
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public boolean addAll(int index, LongCollection collection) {
+  checkRangeIncludingEndpoint(index);
+  if (collection instanceof RandomAccessLongList
+   && ((RandomAccessLongList) collection).backingList() == this) {
+   try (DirectLongList copy = new DirectLongList(collection)) {
+    return addAll(index, copy);
+   }
+  }
+  int length = collection.size();
+  if (length == 0) {
+   return false;
+  }
+  openGap(index, length);
+  long[] batch = new long[Math.min(length, MOVE_CHUNK)];
+  if (collection instanceof RandomAccessLongList) {
+   RandomAccessLongList that = (RandomAccessLongList) collection;
+   for (int done = 0; done < length;) {
+    int n = Math.min(batch.length, length - done);
+    that.copyInto(done, batch, 0, n);
+    write(index + done, batch, 0, n);
+    done += n;
+   }
+  } else {
+   LongIterator iter = collection.iterator();
+   for (int done = 0; done < length;) {
+    int n = Math.min(batch.length, length - done);
+    for (int i = 0; i < n; i++) {
+     batch[i] = iter.next();
+    }
+    write(index + done, batch, 0, n);
+    done += n;
+   }
+  }
+  return true;
+ }
+
+ @Override
+ protected void copyInto(int index, long[] dest, int destOffset, int length) {
+  ensureOpen();
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+  read(index, dest, destOffset, length);
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Increases my capacity, if necessary, to ensure that I can hold at least the
+  * number of elements specified by the minimum capacity argument without
+  * growing.
+  *
+  * @param mincap
+  * @throws IllegalArgumentException if <i>mincap</i> is negative
+  */
+ public void ensureCapacity(int mincap) {
+  ensureOpen();
+  incrModCount();
+  if (mincap > _capacity) {
+   if (mincap < 0) {
+    throw new IllegalArgumentException("capacity " + mincap);
+   }
+   long newcap = (_capacity * 3L) / 2 + 1;
+   reallocate((int) Math.min(Math.max(newcap, mincap), MAX_CAPACITY));
+  }
+ }
+
+ /**
+  * Reduce my capacity, if necessary, to match my current {@link #size size}.
+  */
+ public void trimToSize() {
+  ensureOpen();
+  incrModCount();
+  if (_size < _capacity) {
+   reallocate(_size);
+  }
+ }
+
+ /**
+  * Returns <code>true</code> iff I have been {@link #close closed}.
+  *
+  * @return <code>true</code> iff I have been closed
+  */
+ public boolean isClosed() {
+  return _chunks == null;
+ }
+
+ /**
+  * Frees my native memory. I hold no elements afterwards, and every method
+  * except this one, {@link #isClosed}, and {@link #size} throws an
+  * {@link IllegalStateException}. Closing a closed list has no effect.
+  */
+ @Override
+ public void close() {
+  if (_chunks != null) {
+   incrModCount();
+   ByteBuffer[] buffers = _buffers;
+   _buffers = null;
+   _chunks = null;
+   _capacity = 0;
+   _size = 0;
+   for (int i = 0; i < buffers.length; i++) {
+    DirectBuffers.free(buffers[i]);
+   }
+  }
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ /**
+  * Sets my capacity to <i>capacity</i>, keeping my first elements up to
+  * that many. Every buffer is full size except the last, so only the last
+  * buffer is reallocated, and buffers past the new last one are dropped.
+  * The buffers replaced are freed once the new ones are in place.
+  */
+ private void reallocate(int capacity) {
+  ByteBuffer[] oldBuffers = _buffers;
+  int count = (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+  ByteBuffer[] buffers = Arrays.copyOf(oldBuffers, count);
+  LongBuffer[] chunks = Arrays.copyOf(_chunks, count);
+  try {
+   for (int i = 0; i < count; i++) {
+    int start = i << CHUNK_SHIFT;
+    int length = Math.min(CHUNK_SIZE, capacity - start);
+    if (chunks[i] == null || chunks[i].capacity() != length) {
+     LongBuffer old = chunks[i];
+     buffers[i] = ByteBuffer.allocateDirect(length * Long.BYTES)
+      .order(ByteOrder.nativeOrder());
+     chunks[i] = buffers[i].asLongBuffer();
+     if (old != null) {
+      LongBuffer src = old.duplicate();
+      src.limit(Math.max(Math.min(_size - start, length), 0));
+      chunks[i].put(src);
+      chunks[i].clear();
+     }
+    }
+   }
+  } catch (RuntimeException | Error e) {
+   freeReplaced(buffers, oldBuffers);
+   throw e;
+  }
+  _buffers = buffers;
+  _chunks = chunks;
+  _capacity = capacity;
+  freeReplaced(oldBuffers, buffers);
+ }
+
+ /**
+  * Frees each buffer of <i>buffers</i> that is not at the same index in
+  * <i>kept</i>.
+  */
+ private static void freeReplaced(ByteBuffer[] buffers, ByteBuffer[] kept) {
+  for (int i = 0; i < buffers.length; i++) {
+   if (i >= kept.length || buffers[i] != kept[i]) {
+    DirectBuffers.free(buffers[i]);
+   }
+  }
+ }
+
+ /**
+  * Copies <i>length</i> of my elements, starting at <i>index</i>, into
+  * <i>dest</i>.
+  */
+ private void read(int index, long[] dest, int offset, int length) {
+  for (int done = 0; done < length;) {
+   int pos = index + done;
+   LongBuffer chunk = _chunks[pos >>> CHUNK_SHIFT].duplicate();
+   chunk.position(pos & CHUNK_MASK);
+   int n = Math.min(chunk.remaining(), length - done);
+   chunk.get(dest, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Copies <i>length</i> elements of <i>src</i> into me, starting at
+  * <i>index</i>.
+  */
+ private void write(int index, long[] src, int offset, int length) {
+  for (int done = 0; done < length;) {
+   int pos = index + done;
+   LongBuffer chunk = _chunks[pos >>> CHUNK_SHIFT].duplicate();
+   chunk.position(pos & CHUNK_MASK);
+   int n = Math.min(chunk.remaining(), length - done);
+   chunk.put(src, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Moves <i>length</i> elements from index <i>from</i> to index <i>to</i>,
+  * through a small heap buffer so that overlapping ranges are copied as if
+  * through a temporary copy of the whole range.
+  */
+ private void move(int from, int to, int length) {
+  if (length <= 0 || from == to) {
+   return;
+  }
+  long[] chunk = new long[Math.min(length, MOVE_CHUNK)];
+  if (from > to) {
+   for (int done = 0; done < length; done += chunk.length) {
+    int n = Math.min(chunk.length, length - done);
+    read(from + done, chunk, 0, n);
+    write(to + done, chunk, 0, n);
+   }
+  } else {
+   for (int remaining = length; remaining > 0;) {
+    int n = Math.min(chunk.length, remaining);
+    remaining -= n;
+    read(from + remaining, chunk, 0, n);
+    write(to + remaining, chunk, 0, n);
+   }
+  }
+ }
+
+ private void ensureOpen() {
+  if (_chunks == null) {
+   throw new IllegalStateException("closed");
+  }
+ }
+
+ private void checkRange(int index) {
+  ensureOpen();
+  if (index < 0 || index >= _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and less than " + _size + ", found " + index);
+  }
+ }
+
+ private void checkRangeIncludingEndpoint(int index) {
+  ensureOpen();
+  if (index < 0 || index > _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and at most " + _size + ", found " + index);
+  }
+ }
+
+ /**
+  * Makes room for <i>length</i> elements at <i>index</i>, shifting any
+  * subsequent elements to the right, and counts them in my size.
+  */
+ private void openGap(int index, int length) {
+  if (length > MAX_CAPACITY - _size) {
+   throw new IllegalStateException("Size would exceed " + MAX_CAPACITY);
+  }
+  incrModCount();
+  ensureCapacity(_size + length);
+  move(index, index + length, _size - index);
+  _size += length;
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private ByteBuffer[] _buffers = null;
+ private LongBuffer[] _chunks = null;
+ private int _capacity = 0;
+ private int _size = 0;
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+/**
+ * A comparison function imposing a total ordering on <code>double</code>
+ * values. This is the <code>double</code> specialization of
+ * {@link java.util.Comparator Comparator}.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+@FunctionalInterface
+public interface DoubleComparator {
+
+ /**
+  * Compares its two arguments for order.
+  *
+  * @param a the first value to compare
+  * @param b the second value to compare
+  * @return a negative integer, zero, or a positive integer as <i>a</i> is
+  * less than, equal to, or greater than <i>b</i>
+  */
+ int compare(double a, double b);
+
+ /**
+  * Returns a comparator imposing the reverse of my ordering.
+  *
+  * @return the reverse of me
+  */
+ default DoubleComparator reversed() {
+  return (a, b) -> compare(b, a);
+ }
+
+ /**
+  * Returns a comparator imposing the natural ordering of <code>double</code>
+  * values, as by {@link Double#compare Double.compare}.
+  *
+  * @return the natural ordering
+  */
+ static DoubleComparator naturalOrder() {
+  return Double::compare;
+ }
+}
@@ -16,6 +16,10 @@
  */
 package org.apache.commons.collections.primitives;
 
+import java.util.Objects;
+
+
+
 /**
  * A collection of <code>float</code> values.
  *
@@ -205,4 +209,46 @@ public interface FloatCollection {
   */
  float[] toArray(float[] a);
 
+ /**
+  * Removes all of my elements that satisfy the given predicate (optional
+  * operation).
+  * <p>
+  * The default implementation removes each matching element through my
+  * {@link #iterator iterator}.
+  *
+  * @param filter a predicate which returns <code>true</code> for elements to
+  * be removed
+  * @return <code>true</code> iff any elements were removed
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>filter</i> is <code>null</code>
+  */
+ default boolean removeIf(FloatPredicate filter) {
+  Objects.requireNonNull(filter);
+  boolean modified = false;
+  for (FloatIterator iter = iterator(); iter.hasNext();) {
+   if (filter.test(iter.next())) {
+    iter.remove();
+    modified = true;
+   }
+  }
+  return modified;
+ }
+
+ /**
+  * Performs the given action for each of my elements, in the order in which
+  * my {@link #iterator iterator} returns them.
+  * <p>
+  * The default implementation walks my {@link #iterator iterator}.
+  *
+  * @param action the action to be performed for each element
+  * @throws NullPointerException if <i>action</i> is <code>null</code>
+  */
+ default void forEach(FloatConsumer action) {
+  Objects.requireNonNull(action);
+  for (FloatIterator iter = iterator(); iter.hasNext();) {
+   action.accept(iter.next());
+  }
+ }
+
 }
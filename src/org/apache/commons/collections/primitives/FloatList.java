@@ -16,6 +16,10 @@
  */
 package org.apache.commons.collections.primitives;
 
+import java.util.Objects;
+
+
+
 /**
  * An ordered collection of <code>float</code> values.
  *
@@ -234,4 +238,23 @@ public interface FloatList extends FloatCollection {
   */
  FloatList subList(int fromIndex, int toIndex);
 
+ /**
+  * Replaces each of my elements with the result of applying the given
+  * operator to it (optional operation).
+  * <p>
+  * The default implementation replaces each element through my
+  * {@link #listIterator() list iterator}.
+  *
+  * @param operator the operator to apply to each element
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>operator</i> is <code>null</code>
+  */
+ default void replaceAll(FloatUnaryOperator operator) {
+  Objects.requireNonNull(operator);
+  for (FloatListIterator iter = listIterator(); iter.hasNext();) {
+   iter.set(operator.applyAsFloat(iter.next()));
+  }
+ }
+
 }
@@ -46,9 +46,7 @@ public class FloatStack {
   * @param numbas the float array to add
   */
  public FloatStack(float[] numbas) {
-  for (int ii = 0; ii < numbas.length; ii++) {
-   list.add(numbas[ii]);
-  }
+  list.addAll(numbas, 0, numbas.length);
  }
 
  /**
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.Serializable;
+
+/**
+ * Decides how much the backing array of an array backed list grows when it
+ * is full, trading memory held in unused capacity against the cost of
+ * copying elements on each growth step. A policy can be given to the
+ * constructors of {@link ArrayIntList} and the other array backed lists.
+ * <p>
+ * Policies hold no per-list state, so one instance may be shared by any
+ * number of lists. They are serializable so that a list keeps its policy
+ * across serialization.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public abstract class GrowthPolicy implements Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ /**
+  * The largest array length requested by the policies in this class. Some
+  * virtual machines reserve a few words in an array header, so arrays of
+  * exactly {@link Integer#MAX_VALUE} elements may not be allocatable.
+  */
+ protected static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+ private static final GrowthPolicy DEFAULT = new Multiplicative(1.5, 8);
+
+ protected GrowthPolicy() {
+ }
+
+ /**
+  * Returns the capacity allocated by a list created without an explicit
+  * capacity. This implementation returns <code>8</code>.
+  *
+  * @return the initial capacity of a new list
+  */
+ public int initialCapacity() {
+  return 8;
+ }
+
+ /**
+  * Returns the capacity a list should grow to from <i>capacity</i> in order
+  * to hold at least <i>minCapacity</i> elements.
+  *
+  * @param capacity the current capacity, less than <i>minCapacity</i>
+  * @param minCapacity the number of elements the list must be able to hold
+  * @return the new capacity, at least <i>minCapacity</i>
+  */
+ public abstract int grow(int capacity, int minCapacity);
+
+ /**
+  * Returns <i>wanted</i> limited to {@link #MAX_ARRAY_LENGTH}, but never less
+  * than <i>minCapacity</i>.
+  *
+  * @param wanted the capacity a policy would like to grow to
+  * @param minCapacity the number of elements the list must be able to hold
+  * @return the capacity to grow to
+  */
+ protected static int clamp(long wanted, int minCapacity) {
+  return (int) Math.max(Math.min(wanted, MAX_ARRAY_LENGTH), minCapacity);
+ }
+
+ // factories
+ //-------------------------------------------------------------------------
+ /**
+  * Returns the policy used when none is given: grow by half again plus one,
+  * starting from a capacity of <code>8</code>.
+  *
+  * @return the default policy
+  */
+ public static GrowthPolicy defaultPolicy() {
+  return DEFAULT;
+ }
+
+ /**
+  * Returns a policy that grows to exactly the capacity needed and starts
+  * from a capacity of <code>0</code>. It wastes no memory but copies the
+  * elements on every growth, which suits lists that are filled once.
+  *
+  * @return an exact policy
+  */
+ public static GrowthPolicy exact() {
+  return new Exact();
+ }
+
+ /**
+  * Returns a policy that multiplies the capacity by <i>factor</i>, plus one,
+  * on each growth, starting from a capacity of <code>8</code>. A factor of
+  * <code>2</code> halves the number of copies made by the default policy at
+  * the cost of more unused capacity.
+  *
+  * @param factor the factor to grow by, greater than <code>1</code>
+  * @return a multiplicative policy
+  * @throws IllegalArgumentException if <i>factor</i> is not greater than
+  * <code>1</code>
+  */
+ public static GrowthPolicy multiplicative(double factor) {
+  if (!(factor > 1)) {
+   throw new IllegalArgumentException("factor " + factor);
+  }
+  return new Multiplicative(factor, 8);
+ }
+
+ /**
+  * Returns a policy that adds <i>increment</i> to the capacity on each
+  * growth, starting from a capacity of <i>increment</i>. It bounds the
+  * unused capacity of a list by <i>increment</i>.
+  *
+  * @param increment the number of elements to grow by, at least
+  * <code>1</code>
+  * @return an additive policy
+  * @throws IllegalArgumentException if <i>increment</i> is less than
+  * <code>1</code>
+  */
+ public static GrowthPolicy additive(int increment) {
+  if (increment < 1) {
+   throw new IllegalArgumentException("increment " + increment);
+  }
+  return new Additive(increment);
+ }
+
+ /**
+  * Returns a policy that grows as <i>policy</i> does, but by at most
+  * <i>maxIncrement</i> elements at a time beyond what is needed. Capping a
+  * multiplicative policy keeps the unused capacity of very large lists
+  * bounded.
+  *
+  * @param policy the policy to cap
+  * @param maxIncrement the largest number of elements to grow by beyond the
+  * needed capacity, at least <code>1</code>
+  * @return a capped policy
+  * @throws NullPointerException if <i>policy</i> is <code>null</code>
+  * @throws IllegalArgumentException if <i>maxIncrement</i> is less than
+  * <code>1</code>
+  */
+ public static GrowthPolicy capped(GrowthPolicy policy, int maxIncrement) {
+  if (policy == null) {
+   throw new NullPointerException("policy");
+  }
+  if (maxIncrement < 1) {
+   throw new IllegalArgumentException("increment " + maxIncrement);
+  }
+  return new Capped(policy, maxIncrement);
+ }
+
+ /**
+  * Returns a policy that grows as <i>policy</i> does, but allocates nothing
+  * until the first element is added, and then allocates at least
+  * <i>firstCapacity</i> elements. This suits many lists that mostly stay
+  * empty.
+  *
+  * @param policy the policy to grow by once the first array is allocated
+  * @param firstCapacity the capacity allocated by the first growth
+  * @return a lazy policy
+  * @throws NullPointerException if <i>policy</i> is <code>null</code>
+  * @throws IllegalArgumentException if <i>firstCapacity</i> is negative
+  */
+ public static GrowthPolicy lazy(GrowthPolicy policy, int firstCapacity) {
+  if (policy == null) {
+   throw new NullPointerException("policy");
+  }
+  if (firstCapacity < 0) {
+   throw new IllegalArgumentException("capacity " + firstCapacity);
+  }
+  return new Lazy(policy, firstCapacity);
+ }
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ private static final class Exact extends GrowthPolicy {
+
+  static final long serialVersionUID = 1L;
+
+  @Override
+  public int initialCapacity() {
+   return 0;
+  }
+
+  @Override
+  public int grow(int capacity, int minCapacity) {
+   return minCapacity;
+  }
+ }
+
+ private static final class Multiplicative extends GrowthPolicy {
+
+  static final long serialVersionUID = 1L;
+
+  Multiplicative(double factor, int initialCapacity) {
+   _factor = factor;
+   _initialCapacity = initialCapacity;
+  }
+
+  @Override
+  public int initialCapacity() {
+   return _initialCapacity;
+  }
+
+  @Override
+  public int grow(int capacity, int minCapacity) {
+   return clamp((long) (capacity * _factor) + 1, minCapacity);
+  }
+
+  private final double _factor;
+  private final int _initialCapacity;
+ }
+
+ private static final class Additive extends GrowthPolicy {
+
+  static final long serialVersionUID = 1L;
+
+  Additive(int increment) {
+   _increment = increment;
+  }
+
+  @Override
+  public int initialCapacity() {
+   return _increment;
+  }
+
+  @Override
+  public int grow(int capacity, int minCapacity) {
+   return clamp((long) capacity + _increment, minCapacity);
+  }
+
+  private final int _increment;
+ }
+
+ private static final class Capped extends GrowthPolicy {
+
+  static final long serialVersionUID = 1L;
+
+  Capped(GrowthPolicy policy, int maxIncrement) {
+   _policy = policy;
+   _maxIncrement = maxIncrement;
+  }
+
+  @Override
+  public int initialCapacity() {
+   return _policy.initialCapacity();
+  }
+
+  @Override
+  public int grow(int capacity, int minCapacity) {
+   return clamp(Math.min(_policy.grow(capacity, minCapacity),
+    (long) minCapacity + _maxIncrement), minCapacity);
+  }
+
+  private final GrowthPolicy _policy;
+  private final int _maxIncrement;
+ }
+
+ private static final class Lazy extends GrowthPolicy {
+
+  static final long serialVersionUID = 1L;
+
+  Lazy(GrowthPolicy policy, int firstCapacity) {
+   _policy = policy;
+   _firstCapacity = firstCapacity;
+  }
+
+  @Override
+  public int initialCapacity() {
+   return 0;
+  }
+
+  @Override
+  public int grow(int capacity, int minCapacity) {
+   if (capacity == 0) {
+    return clamp(_firstCapacity, minCapacity);
+   }
+   return _policy.grow(capacity, minCapacity);
+  }
+
+  private final GrowthPolicy _policy;
+  private final int _firstCapacity;
+ }
+}
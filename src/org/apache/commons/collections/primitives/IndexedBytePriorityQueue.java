@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A priority queue of <code>int</code> keys, each from <code>0</code> to
+ * one less than a fixed {@link #capacity capacity}, ordered by a
+ * <code>byte</code> priority. Because the queue tracks where each key sits in
+ * its heap, the priority of a queued key can be changed in logarithmic time,
+ * as in Dijkstra's or Prim's algorithm, or a timer wheel that reschedules
+ * entries. Keys are typically indices into parallel arrays or lists holding
+ * the data they stand for.
+ * <p>
+ * The head of the queue is the key of least priority according to the
+ * queue's {@link ByteComparator}, so the natural ordering makes this a
+ * min-queue. Like {@link BytePriorityQueue}, the heap may be binary or
+ * <i>d</i>-ary, and nothing is boxed or allocated after construction.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class IndexedBytePriorityQueue {
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty binary min-queue for keys from <code>0</code> to
+  * <code><i>capacity</i> - 1</code>.
+  *
+  * @param capacity the number of distinct keys
+  * @throws IllegalArgumentException when <i>capacity</i> is negative
+  */
+ public IndexedBytePriorityQueue(int capacity) {
+  this(capacity, 2, ByteComparator.naturalOrder());
+ }
+
+ /**
+  * Construct an empty binary queue for keys from <code>0</code> to
+  * <code><i>capacity</i> - 1</code>, ordered by the given comparator.
+  *
+  * @param capacity the number of distinct keys
+  * @param comparator the ordering of the priorities
+  * @throws IllegalArgumentException when <i>capacity</i> is negative
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public IndexedBytePriorityQueue(int capacity, ByteComparator comparator) {
+  this(capacity, 2, comparator);
+ }
+
+ /**
+  * Construct an empty <i>arity</i>-ary heap for keys from <code>0</code> to
+  * <code><i>capacity</i> - 1</code>, ordered by the given comparator.
+  *
+  * @param capacity the number of distinct keys
+  * @param arity the number of children of each node of the heap, at least
+  * <code>2</code>
+  * @param comparator the ordering of the priorities
+  * @throws IllegalArgumentException when <i>capacity</i> is negative or
+  * <i>arity</i> is less than <code>2</code>
+  * @throws NullPointerException if <i>comparator</i> is <code>null</code>
+  */
+ public IndexedBytePriorityQueue(int capacity, int arity,
+  ByteComparator comparator) {
+  if (capacity < 0) {
+   throw new IllegalArgumentException("capacity " + capacity);
+  }
+  if (arity < 2) {
+   throw new IllegalArgumentException("arity " + arity);
+  }
+  _comparator = Objects.requireNonNull(comparator);
+  _arity = arity;
+  _heap = new int[capacity];
+  _positions = new int[capacity];
+  Arrays.fill(_positions, -1);
+  _priorities = new byte[capacity];
+ }
+
+ // queue methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns the number of distinct keys I can hold.
+  *
+  * @return one more than my largest key
+  */
+ public int capacity() {
+  return _heap.length;
+ }
+
+ /**
+  * Returns the number of keys I hold.
+  *
+  * @return my size
+  */
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Returns <code>true</code> iff I hold no keys.
+  *
+  * @return <code>true</code> iff I am empty
+  */
+ public boolean isEmpty() {
+  return _size == 0;
+ }
+
+ /**
+  * Returns <code>true</code> iff I hold the given key.
+  *
+  * @param key the key to look for
+  * @return <code>true</code> iff <i>key</i> is queued
+  * @throws IndexOutOfBoundsException if <i>key</i> is not below my capacity
+  */
+ public boolean contains(int key) {
+  checkKey(key);
+  return _positions[key] >= 0;
+ }
+
+ /**
+  * Queues the given key with the given priority.
+  *
+  * @param key the key to queue
+  * @param priority its priority
+  * @throws IllegalArgumentException if <i>key</i> is already queued
+  * @throws IndexOutOfBoundsException if <i>key</i> is not below my capacity
+  */
+ public void add(int key, byte priority) {
+  if (contains(key)) {
+   throw new IllegalArgumentException("Key " + key + " already queued");
+  }
+  _priorities[key] = priority;
+  siftUp(_size++, key);
+ }
+
+ /**
+  * Queues the given key with the given priority, or changes its priority if
+  * it is already queued.
+  *
+  * @param key the key to queue
+  * @param priority its priority
+  * @throws IndexOutOfBoundsException if <i>key</i> is not below my capacity
+  */
+ public void put(int key, byte priority) {
+  if (contains(key)) {
+   changePriority(key, priority);
+  } else {
+   add(key, priority);
+  }
+ }
+
+ /**
+  * Returns the priority of the given queued key.
+  *
+  * @param key a queued key
+  * @return its priority
+  * @throws NoSuchElementException if <i>key</i> is not queued
+  * @throws IndexOutOfBoundsException if <i>key</i> is not below my capacity
+  */
+ public byte priorityOf(int key) {
+  checkQueued(key);
+  return _priorities[key];
+ }
+
+ /**
+  * Changes the priority of the given queued key, moving it towards the head
+  * if the new priority is less, as in a <i>decrease-key</i> operation, or
+  * away from it if greater.
+  *
+  * @param key a queued key
+  * @param priority its new priority
+  * @throws NoSuchElementException if <i>key</i> is not queued
+  * @throws IndexOutOfBoundsException if <i>key</i> is not below my capacity
+  */
+ public void changePriority(int key, byte priority) {
+  checkQueued(key);
+  int c = _comparator.compare(priority, _priorities[key]);
+  _priorities[key] = priority;
+  if (c < 0) {
+   siftUp(_positions[key], key);
+  } else if (c > 0) {
+   siftDown(_positions[key], key);
+  }
+ }
+
+ /**
+  * Removes the given key, if it is queued.
+  *
+  * @param key the key to remove
+  * @return <code>true</code> iff <i>key</i> was queued
+  * @throws IndexOutOfBoundsException if <i>key</i> is not below my capacity
+  */
+ public boolean remove(int key) {
+  if (!contains(key)) {
+   return false;
+  }
+  int index = _positions[key];
+  _positions[key] = -1;
+  int last = _heap[--_size];
+  if (index < _size && siftDown(index, last) == index) {
+   siftUp(index, last);
+  }
+  return true;
+ }
+
+ /**
+  * Returns the key of least priority without removing it.
+  *
+  * @return my head
+  * @throws NoSuchElementException if I am empty
+  */
+ public int peekKey() {
+  if (_size == 0) {
+   throw new NoSuchElementException();
+  }
+  return _heap[0];
+ }
+
+ /**
+  * Returns the least priority of my keys.
+  *
+  * @return the priority of my head
+  * @throws NoSuchElementException if I am empty
+  */
+ public byte peekPriority() {
+  return _priorities[peekKey()];
+ }
+
+ /**
+  * Removes and returns the key of least priority. Once it is removed,
+  * {@link #priorityOf priorityOf} rejects it like any other key that is
+  * not queued, so read its priority with {@link #peekPriority peekPriority}
+  * before polling.
+  *
+  * @return my former head
+  * @throws NoSuchElementException if I am empty
+  */
+ public int pollKey() {
+  int key = peekKey();
+  _positions[key] = -1;
+  int last = _heap[--_size];
+  if (_size > 0) {
+   siftDown(0, last);
+  }
+  return key;
+ }
+
+ /**
+  * Removes all my keys.
+  */
+ public void clear() {
+  for (int i = 0; i < _size; i++) {
+   _positions[_heap[i]] = -1;
+  }
+  _size = 0;
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private void checkKey(int key) {
+  if (key < 0 || key >= _heap.length) {
+   throw new IndexOutOfBoundsException("Should be at least 0 and less than "
+    + _heap.length + ", found " + key);
+  }
+ }
+
+ private void checkQueued(int key) {
+  if (!contains(key)) {
+   throw new NoSuchElementException("Key " + key + " not queued");
+  }
+ }
+
+ /**
+  * Moves <i>key</i> from the hole at <i>index</i> up towards the root until
+  * its parent's priority is not greater.
+  */
+ private void siftUp(int index, int key) {
+  byte priority = _priorities[key];
+  while (index > 0) {
+   int parent = (index - 1) / _arity;
+   int parentKey = _heap[parent];
+   if (_comparator.compare(priority, _priorities[parentKey]) >= 0) {
+    break;
+   }
+   _heap[index] = parentKey;
+   _positions[parentKey] = index;
+   index = parent;
+  }
+  _heap[index] = key;
+  _positions[key] = index;
+ }
+
+ /**
+  * Moves <i>key</i> from the hole at <i>index</i> down towards the leaves
+  * until no child's priority is less, returning where it lands.
+  */
+ private int siftDown(int index, int key) {
+  byte priority = _priorities[key];
+  int size = _size;
+  for (;;) {
+   long firstChild = (long) index * _arity + 1;
+   if (firstChild >= size) {
+    break;
+   }
+   int child = (int) firstChild;
+   int end = size - child > _arity ? child + _arity : size;
+   int childKey = _heap[child];
+   for (int c = child + 1; c < end; c++) {
+    if (_comparator.compare(_priorities[_heap[c]], _priorities[childKey])
+     < 0) {
+     child = c;
+     childKey = _heap[c];
+    }
+   }
+   if (_comparator.compare(priority, _priorities[childKey]) <= 0) {
+    break;
+   }
+   _heap[index] = childKey;
+   _positions[childKey] = index;
+   index = child;
+  }
+  _heap[index] = key;
+  _positions[key] = index;
+  return index;
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ /**
+  * My queued keys, in heap order.
+  */
+ private final int[] _heap;
+ /**
+  * The index in <code>_heap</code> of each key, or <code>-1</code>.
+  */
+ private final int[] _positions;
+ /**
+  * The priority of each key.
+  */
+ private final byte[] _priorities;
+ private int _size = 0;
+ private final int _arity;
+ private final ByteComparator _comparator;
+}
@@ -0,0 +1,498 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Compresses {@link IntList}s into bytes and back. A codec combines two
+ * choices:
+ * <ul>
+ * <li><i>delta</i> codecs store the difference between each value and the
+ * one before it, which turns sorted lists such as lists of ids into lists of
+ * small numbers;</li>
+ * <li><i>varint</i> codecs store each number as a zig-zag {@link VarInt};
+ * <i>frame of reference</i> codecs store the numbers of each block as their
+ * offsets from the smallest one, packed with just as many bits as the largest
+ * offset needs; <i>patched frame of reference</i> codecs pick a narrower
+ * width that fits most offsets and store the high bits of the few that do not
+ * fit as exceptions, so that one outlier does not widen a whole block.</li>
+ * </ul>
+ * <p>
+ * An encoded stream starts with a format byte and the number of values, then
+ * holds the values in blocks of {@link #BLOCK_SIZE} (the last block may be
+ * shorter). Each block starts with its length in bytes and can be decoded,
+ * or skipped, without looking at any other block; see {@link Decoder}. The
+ * format byte tells the decoding methods which codec wrote a stream, so they
+ * are static. Encoded streams do not depend on the byte order of the buffers
+ * they are written to or read from.
+ * <p>
+ * Codecs hold no state, so the instances returned by the factory methods may
+ * be shared freely.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class IntCodec {
+
+ /**
+  * The number of values in each block of an encoded stream, except perhaps
+  * the last.
+  */
+ public static final int BLOCK_SIZE = 128;
+
+ private static final int VAR_INT = 0;
+ private static final int FRAME_OF_REFERENCE = 1;
+ private static final int PATCHED_FRAME_OF_REFERENCE = 2;
+
+ /**
+  * The high bits of the format byte of a <code>int</code> stream; the low bits
+  * hold the packing and the delta flag.
+  */
+ private static final int FORMAT = 0x10;
+
+ /**
+  * Room for the length and payload of one block, whatever its encoding.
+  */
+ private static final int MAX_BLOCK_BYTES =
+  4 * VarInt.MAX_INT_BYTES + BLOCK_SIZE * (VarInt.MAX_INT_BYTES + 1);
+
+ private static final IntCodec[] CODECS = {
+  new IntCodec(VAR_INT, false), new IntCodec(VAR_INT, true),
+  new IntCodec(FRAME_OF_REFERENCE, false),
+  new IntCodec(FRAME_OF_REFERENCE, true),
+  new IntCodec(PATCHED_FRAME_OF_REFERENCE, false),
+  new IntCodec(PATCHED_FRAME_OF_REFERENCE, true)
+ };
+
+ private IntCodec(int packing, boolean delta) {
+  _packing = packing;
+  _delta = delta;
+ }
+
+ // factories
+ //-------------------------------------------------------------------------
+ /**
+  * Returns a codec storing each value as a zig-zag varint.
+  *
+  * @return a varint codec
+  */
+ public static IntCodec varInt() {
+  return CODECS[0];
+ }
+
+ /**
+  * Returns a codec storing the difference between consecutive values as a
+  * zig-zag varint.
+  *
+  * @return a delta varint codec
+  */
+ public static IntCodec deltaVarInt() {
+  return CODECS[1];
+ }
+
+ /**
+  * Returns a codec bit-packing the values of each block as offsets from the
+  * block's smallest value.
+  *
+  * @return a frame of reference codec
+  */
+ public static IntCodec frameOfReference() {
+  return CODECS[2];
+ }
+
+ /**
+  * Returns a codec bit-packing the differences between consecutive values of
+  * each block as offsets from the block's smallest difference.
+  *
+  * @return a delta frame of reference codec
+  */
+ public static IntCodec deltaFrameOfReference() {
+  return CODECS[3];
+ }
+
+ /**
+  * Returns a codec like {@link #frameOfReference} that stores the few values
+  * that would widen a block as exceptions.
+  *
+  * @return a patched frame of reference codec
+  */
+ public static IntCodec patchedFrameOfReference() {
+  return CODECS[4];
+ }
+
+ /**
+  * Returns a codec like {@link #deltaFrameOfReference} that stores the few
+  * differences that would widen a block as exceptions. This is usually the
+  * most compact codec for sorted lists.
+  *
+  * @return a delta patched frame of reference codec
+  */
+ public static IntCodec deltaPatchedFrameOfReference() {
+  return CODECS[5];
+ }
+
+ // encoding
+ //-------------------------------------------------------------------------
+ /**
+  * Encodes the given list into the given buffer, starting at its position
+  * and advancing the position past the encoded stream.
+  *
+  * @param list the list to encode
+  * @param out the buffer to write to
+  * @throws java.nio.BufferOverflowException if <i>out</i> has too little
+  * room, in which case its position is unchanged
+  */
+ public void encode(IntList list, ByteBuffer out) {
+  ByteBuffer view = out.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+  encode(list, view, null);
+  out.position(view.position());
+ }
+
+ /**
+  * Encodes the given list into a new byte list.
+  *
+  * @param list the list to encode
+  * @return the encoded stream
+  */
+ public ArrayByteList encode(IntList list) {
+  ArrayByteList bytes = new ArrayByteList();
+  encode(list, null, bytes);
+  bytes.trimToSize();
+  return bytes;
+ }
+
+ /**
+  * Writes the stream to exactly one of <i>out</i> and <i>bytes</i>.
+  */
+ private void encode(IntList list, ByteBuffer out, ArrayByteList bytes) {
+  int size = list.size();
+  ByteBuffer scratch =
+   ByteBuffer.allocate(MAX_BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  scratch.put((byte) (FORMAT | _packing << 1 | (_delta ? 1 : 0)));
+  VarInt.putInt(scratch, size);
+  write(scratch.array(), 0, scratch.position(), out, bytes);
+  int[] block = new int[BLOCK_SIZE];
+  for (int i = 0; i < size; i += BLOCK_SIZE) {
+   int n = Math.min(BLOCK_SIZE, size - i);
+   for (int j = 0; j < n; j++) {
+    block[j] = list.get(i + j);
+   }
+   // leave room in front of the payload for its length
+   scratch.clear();
+   scratch.position(VarInt.MAX_INT_BYTES);
+   encodeBlock(block, n, scratch);
+   int end = scratch.position();
+   int length = end - VarInt.MAX_INT_BYTES;
+   int start = VarInt.MAX_INT_BYTES - VarInt.sizeOfInt(length);
+   scratch.position(start);
+   VarInt.putInt(scratch, length);
+   write(scratch.array(), start, end - start, out, bytes);
+  }
+ }
+
+ private static void write(byte[] array, int offset, int length,
+  ByteBuffer out, ArrayByteList bytes) {
+  if (out != null) {
+   out.put(array, offset, length);
+  } else {
+   bytes.addAll(array, offset, length);
+  }
+ }
+
+ private void encodeBlock(int[] values, int n, ByteBuffer out) {
+  int start = 0;
+  if (_delta) {
+   VarInt.putInt(out, VarInt.encodeZigZag(values[0]));
+   for (int i = n - 1; i > 0; i--) {
+    values[i] -= values[i - 1];
+   }
+   start = 1;
+  }
+  if (start == n) {
+   return;
+  }
+  if (_packing == VAR_INT) {
+   for (int i = start; i < n; i++) {
+    VarInt.putInt(out, VarInt.encodeZigZag(values[i]));
+   }
+   return;
+  }
+  int base = values[start];
+  for (int i = start + 1; i < n; i++) {
+   base = Math.min(base, values[i]);
+  }
+  // the offsets from base are unsigned, and may not fit the signed range
+  int[] widths = new int[32 + 1];
+  int width = 0;
+  for (int i = start; i < n; i++) {
+   values[i] -= base;
+   int w = widthOf(values[i]);
+   widths[w]++;
+   width = Math.max(width, w);
+  }
+  int bits = width;
+  if (_packing == PATCHED_FRAME_OF_REFERENCE) {
+   bits = patchWidth(widths, width, n - start);
+  }
+  VarInt.putInt(out, VarInt.encodeZigZag(base));
+  out.put((byte) bits);
+  if (_packing == PATCHED_FRAME_OF_REFERENCE) {
+   int exceptions = 0;
+   for (int w = bits + 1; w <= width; w++) {
+    exceptions += widths[w];
+   }
+   out.put((byte) exceptions);
+   BitPacking.pack(out, values, start, n - start, bits);
+   for (int i = start; i < n; i++) {
+    if (widthOf(values[i]) > bits) {
+     out.put((byte) (i - start));
+     VarInt.putInt(out, values[i] >>> bits);
+    }
+   }
+  } else {
+   BitPacking.pack(out, values, start, n - start, bits);
+  }
+ }
+
+ /**
+  * Returns the packing width giving the smallest block, counting each value
+  * wider than it as an exception costing a position byte plus a varint of
+  * its high bits.
+  */
+ private static int patchWidth(int[] widths, int width, int count) {
+  int best = width;
+  long bestSize = BitPacking.packedSize(count, width);
+  for (int bits = width - 1; bits >= 0; bits--) {
+   long size = BitPacking.packedSize(count, bits);
+   for (int w = bits + 1; w <= width; w++) {
+    size += widths[w] * (1 + (w - bits + 6) / 7);
+   }
+   if (size < bestSize) {
+    best = bits;
+    bestSize = size;
+   }
+  }
+  return best;
+ }
+
+ private static int widthOf(int value) {
+  return 32 - Integer.numberOfLeadingZeros(value);
+ }
+
+ // decoding
+ //-------------------------------------------------------------------------
+ /**
+  * Decodes the stream at the buffer's position, written by any
+  * <code>IntCodec</code>, and advances the position past it.
+  *
+  * @param in the buffer to read from
+  * @return a new list of the decoded values
+  * @throws IllegalArgumentException if <i>in</i> does not hold an encoded
+  * <code>int</code> stream
+  * @throws java.nio.BufferUnderflowException if the stream is truncated
+  */
+ public static ArrayIntList decode(ByteBuffer in) {
+  Decoder decoder = decoder(in);
+  ArrayIntList list = new ArrayIntList(decoder.size());
+  int[] block = new int[BLOCK_SIZE];
+  for (int n; (n = decoder.nextBlock(block)) > 0;) {
+   list.addAll(block, 0, n);
+  }
+  in.position(decoder._in.position());
+  return list;
+ }
+
+ /**
+  * Decodes the stream held by the given list, written by any
+  * <code>IntCodec</code>.
+  *
+  * @param bytes the encoded stream
+  * @return a new list of the decoded values
+  * @throws IllegalArgumentException if <i>bytes</i> does not hold an encoded
+  * <code>int</code> stream
+  * @throws java.nio.BufferUnderflowException if the stream is truncated
+  */
+ public static ArrayIntList decode(ByteList bytes) {
+  byte[] array = bytes instanceof ArrayByteList
+   ? ((ArrayByteList) bytes).backingArray() : bytes.toArray();
+  return decode(ByteBuffer.wrap(array, 0, bytes.size()));
+ }
+
+ /**
+  * Returns a decoder for the stream at the buffer's position, written by any
+  * <code>IntCodec</code>. The decoder reads from a duplicate of <i>in</i>, so
+  * the position of <i>in</i> does not move.
+  *
+  * @param in the buffer to read from
+  * @return a decoder positioned at the first block
+  * @throws IllegalArgumentException if <i>in</i> does not hold an encoded
+  * <code>int</code> stream
+  * @throws java.nio.BufferUnderflowException if the stream is truncated
+  */
+ public static Decoder decoder(ByteBuffer in) {
+  ByteBuffer view = in.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+  int format = view.get() & 0xFF;
+  int index = format & 0x0F;
+  if ((format & 0xF0) != FORMAT || index >= CODECS.length) {
+   throw new IllegalArgumentException("Not an encoded int stream: format "
+    + format);
+  }
+  int size = VarInt.getInt(view);
+  if (size < 0) {
+   throw new IllegalArgumentException("Corrupt stream: size " + size);
+  }
+  return new Decoder(CODECS[index], view, size);
+ }
+
+ private void decodeBlock(ByteBuffer in, int[] values, int n) {
+  int start = 0;
+  if (_delta) {
+   values[0] = VarInt.decodeZigZag(VarInt.getInt(in));
+   start = 1;
+  }
+  if (start < n) {
+   if (_packing == VAR_INT) {
+    for (int i = start; i < n; i++) {
+     values[i] = VarInt.decodeZigZag(VarInt.getInt(in));
+    }
+   } else {
+    decodeFrame(in, values, start, n);
+   }
+  }
+  if (_delta) {
+   for (int i = 1; i < n; i++) {
+    values[i] += values[i - 1];
+   }
+  }
+ }
+
+ private void decodeFrame(ByteBuffer in, int[] values, int start, int n) {
+  int base = VarInt.decodeZigZag(VarInt.getInt(in));
+  int bits = in.get() & 0xFF;
+  int exceptions =
+   _packing == PATCHED_FRAME_OF_REFERENCE ? in.get() & 0xFF : 0;
+  if (bits > 32 || (exceptions > 0 && bits == 32)) {
+   throw new IllegalArgumentException("Corrupt block: width " + bits);
+  }
+  BitPacking.unpack(in, values, start, n - start, bits);
+  for (int e = 0; e < exceptions; e++) {
+   int i = start + (in.get() & 0xFF);
+   if (i >= n) {
+    throw new IllegalArgumentException("Corrupt block: exception " + i);
+   }
+   values[i] |= VarInt.getInt(in) << bits;
+  }
+  for (int i = start; i < n; i++) {
+   values[i] += base;
+  }
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private final int _packing;
+ private final boolean _delta;
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ /**
+  * Decodes an encoded stream a block at a time, so that a caller can work
+  * through a long stream with one block of values in memory, or skip the
+  * blocks it has no use for without decoding them.
+  */
+ public static final class Decoder {
+
+  private Decoder(IntCodec codec, ByteBuffer in, int size) {
+   _codec = codec;
+   _in = in;
+   _size = size;
+   _remaining = size;
+  }
+
+  /**
+   * Returns the number of values in the stream.
+   *
+   * @return the number of values in the stream
+   */
+  public int size() {
+   return _size;
+  }
+
+  /**
+   * Returns the number of values not yet decoded or skipped.
+   *
+   * @return the number of values left in the stream
+   */
+  public int remaining() {
+   return _remaining;
+  }
+
+  /**
+   * Decodes the next block into the start of the given array.
+   *
+   * @param values an array of at least {@link #BLOCK_SIZE} elements
+   * @return the number of values decoded, or <code>0</code> at the end of
+   * the stream
+   * @throws IllegalArgumentException if the block is corrupt
+   * @throws java.nio.BufferUnderflowException if the stream is truncated
+   */
+  public int nextBlock(int[] values) {
+   int n = Math.min(BLOCK_SIZE, _remaining);
+   if (n == 0) {
+    return 0;
+   }
+   int end = blockEnd();
+   _codec.decodeBlock(_in, values, n);
+   if (_in.position() != end) {
+    throw new IllegalArgumentException("Corrupt block: length");
+   }
+   _remaining -= n;
+   return n;
+  }
+
+  /**
+   * Skips the next block without decoding it.
+   *
+   * @return the number of values skipped, or <code>0</code> at the end of
+   * the stream
+   * @throws java.nio.BufferUnderflowException if the stream is truncated
+   */
+  public int skipBlock() {
+   int n = Math.min(BLOCK_SIZE, _remaining);
+   if (n == 0) {
+    return 0;
+   }
+   _in.position(blockEnd());
+   _remaining -= n;
+   return n;
+  }
+
+  private int blockEnd() {
+   int length = VarInt.getInt(_in);
+   if (length < 0 || length > _in.remaining()) {
+    throw new IllegalArgumentException("Corrupt block: length " + length);
+   }
+   return _in.position() + length;
+  }
+
+  private final IntCodec _codec;
+  private final ByteBuffer _in;
+  private final int _size;
+  private int _remaining;
+ }
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A map from <code>int</code> keys to <code>double</code> values. Methods that
+ * would return <code>null</code> for a missing key in
+ * {@link java.util.Map java.util.Map} return <code>0</code> instead; use
+ * {@link #containsKey} or {@link #getOrDefault} to tell the two apart.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public interface IntDoubleMap {
+
+ /**
+  * Returns the number of key-value mappings I contain.
+  *
+  * @return the number of mappings I contain
+  */
+ int size();
+
+ /**
+  * Returns <code>true</code> iff I contain no mappings.
+  *
+  * @return <code>true</code> iff I contain no mappings
+  */
+ boolean isEmpty();
+
+ /**
+  * Removes all my mappings (optional operation).
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ void clear();
+
+ /**
+  * Returns <code>true</code> iff I contain a mapping for the specified key.
+  *
+  * @param key the key whose presence is to be tested
+  * @return <code>true</code> iff I contain a mapping for <i>key</i>
+  */
+ boolean containsKey(int key);
+
+ /**
+  * Returns <code>true</code> iff I map one or more keys to the specified
+  * value.
+  *
+  * @param value the value whose presence is to be tested
+  * @return <code>true</code> iff I map at least one key to <i>value</i>
+  */
+ boolean containsValue(double value);
+
+ /**
+  * Returns the value mapped to the specified key, or <code>0</code> if I
+  * contain no mapping for it.
+  *
+  * @param key the key whose value is to be returned
+  * @return the value mapped to <i>key</i>, or <code>0</code>
+  */
+ double get(int key);
+
+ /**
+  * Returns the value mapped to the specified key, or <i>defaultValue</i> if I
+  * contain no mapping for it.
+  *
+  * @param key the key whose value is to be returned
+  * @param defaultValue the value to return when <i>key</i> is not mapped
+  * @return the value mapped to <i>key</i>, or <i>defaultValue</i>
+  */
+ double getOrDefault(int key, double defaultValue);
+
+ /**
+  * Maps the specified key to the specified value (optional operation).
+  *
+  * @param key the key to map
+  * @param value the value to map <i>key</i> to
+  * @return the value previously mapped to <i>key</i>, or <code>0</code> if
+  * there was none
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ double put(int key, double value);
+
+ /**
+  * Maps the specified key to the specified value unless it is already mapped
+  * (optional operation).
+  *
+  * @param key the key to map
+  * @param value the value to map <i>key</i> to
+  * @return <code>true</code> iff I changed as a result of this call
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ boolean putIfAbsent(int key, double value);
+
+ /**
+  * Adds <i>increment</i> to the value mapped to the specified key, treating a
+  * missing mapping as <code>0</code> (optional operation).
+  *
+  * @param key the key whose value is to be incremented
+  * @param increment the amount to add
+  * @return the value now mapped to <i>key</i>
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ double addTo(int key, double increment);
+
+ /**
+  * Adds one to the value mapped to the specified key, treating a missing
+  * mapping as <code>0</code> (optional operation).
+  *
+  * @param key the key whose value is to be incremented
+  * @return the value now mapped to <i>key</i>
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ double increment(int key);
+
+ /**
+  * Maps the specified key to the result of applying <i>function</i> to its
+  * current value, or to <code>0</code> if it is not mapped (optional
+  * operation).
+  *
+  * @param key the key whose value is to be computed
+  * @param function the function computing the new value from the old one
+  * @return the value now mapped to <i>key</i>
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>function</i> is <code>null</code>
+  */
+ double compute(int key, DoubleUnaryOperator function);
+
+ /**
+  * Maps the specified key to the result of applying <i>function</i> to it,
+  * unless it is already mapped (optional operation).
+  *
+  * @param key the key whose value is to be computed
+  * @param function the function computing a value from the key
+  * @return the value now mapped to <i>key</i>
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>function</i> is <code>null</code>
+  */
+ double computeIfAbsent(int key, IntToDoubleFunction function);
+
+ /**
+  * Maps the specified key to the result of applying <i>function</i> to its
+  * current value, if it is mapped (optional operation).
+  *
+  * @param key the key whose value is to be computed
+  * @param function the function computing the new value from the old one
+  * @return the value now mapped to <i>key</i>, or <code>0</code> if it is not
+  * mapped
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>function</i> is <code>null</code>
+  */
+ double computeIfPresent(int key, DoubleUnaryOperator function);
+
+ /**
+  * Maps the specified key to <i>value</i> if it is not mapped, or otherwise
+  * to the result of applying <i>function</i> to its current value and
+  * <i>value</i> (optional operation).
+  *
+  * @param key the key whose value is to be merged
+  * @param value the value to map or combine
+  * @param function the function combining the old value with <i>value</i>
+  * @return the value now mapped to <i>key</i>
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>function</i> is <code>null</code>
+  */
+ double merge(int key, double value, DoubleBinaryOperator function);
+
+ /**
+  * Removes the mapping for the specified key, if present (optional
+  * operation).
+  *
+  * @param key the key whose mapping is to be removed
+  * @return the value that was mapped to <i>key</i>, or <code>0</code> if there
+  * was none
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ double remove(int key);
+
+ /**
+  * Returns a view of my keys. Removing an element from the view removes the
+  * corresponding mapping from me; the view does not support adding.
+  *
+  * @return a view of my keys
+  */
+ IntCollection keys();
+
+ /**
+  * Returns a view of my values. Removing an element from the view removes one
+  * corresponding mapping from me; the view does not support adding.
+  *
+  * @return a view of my values
+  */
+ DoubleCollection values();
+
+ /**
+  * Returns <code>true</code> iff <i>that</i> is a
+  * <code>IntDoubleMap</code> that contains exactly the same mappings as me.
+  *
+  * @param that the object to compare to me
+  * @return <code>true</code> iff <i>that</i> is an equal map
+  */
+ @Override
+ boolean equals(Object that);
+
+ /**
+  * Returns my hash code, defined as the sum over my mappings of the hash code
+  * of the key xor the hash code of the value, each as defined by the wrapper
+  * type, so that it matches the hash code of an equal
+  * {@link java.util.Map Map}.
+  *
+  * @return my hash code
+  */
+ @Override
+ int hashCode();
+}
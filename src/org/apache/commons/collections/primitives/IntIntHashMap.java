@@ -0,0 +1,763 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A {@link IntIntMap} backed by an open addressing hash table with linear
+ * probing. Keys and values are stored directly in parallel primitive arrays,
+ * so no operation boxes and adding a mapping never allocates.
+ * <p>
+ * The table is resized when the number of mappings exceeds the load factor
+ * times the table length. The table stops growing at 2<sup>30</sup> slots, and
+ * adding a mapping to a full table of that length throws an
+ * <code>IllegalStateException</code>. Removal shifts later entries of the probe
+ * sequence back rather than leaving tombstones.
+ * <p>
+ * The functions given to the <code>compute</code> and <code>merge</code>
+ * methods must not modify this map. The views make no guarantee as to the
+ * order of their elements.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class IntIntHashMap implements IntIntMap, Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty map with the default expected size and load factor.
+  */
+ public IntIntHashMap() {
+  this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+ }
+
+ /**
+  * Construct an empty map able to hold <i>expectedSize</i> mappings without
+  * resizing, using the default load factor.
+  *
+  * @param expectedSize the number of mappings the map should hold
+  * @throws IllegalArgumentException when <i>expectedSize</i> is negative
+  */
+ public IntIntHashMap(int expectedSize) {
+  this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+ }
+
+ /**
+  * Construct an empty map able to hold <i>expectedSize</i> mappings without
+  * resizing.
+  *
+  * @param expectedSize the number of mappings the map should hold
+  * @param loadFactor the maximum fill ratio of the table, strictly between
+  * <code>0</code> and <code>1</code>
+  * @throws IllegalArgumentException when <i>expectedSize</i> is negative or
+  * <i>loadFactor</i> is out of range
+  */
+ public IntIntHashMap(int expectedSize, float loadFactor) {
+  PrimitiveHash.checkExpectedSize(expectedSize);
+  PrimitiveHash.checkLoadFactor(loadFactor);
+  _loadFactor = loadFactor;
+  allocate(PrimitiveHash.tableSize(expectedSize, loadFactor));
+ }
+
+ /**
+  * Constructs a map containing the mappings of the given map.
+  *
+  * @param that the non-<code>null</code> map to copy
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public IntIntHashMap(IntIntMap that) {
+  this(that.size());
+  for (IntIterator iter = that.keys().iterator(); iter.hasNext();) {
+   int key = iter.next();
+   put(key, that.get(key));
+  }
+ }
+
+ // IntIntMap methods
+ //-------------------------------------------------------------------------
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ @Override
+ public boolean isEmpty() {
+  return _size == 0;
+ }
+
+ @Override
+ public void clear() {
+  if (_size > 0) {
+   Arrays.fill(_keys, 0);
+   _containsZeroKey = false;
+   _zeroValue = 0;
+   _occupied = 0;
+   _size = 0;
+  }
+  _modCount++;
+ }
+
+ @Override
+ public boolean containsKey(int key) {
+  if (key == 0) {
+   return _containsZeroKey;
+  }
+  return slotOf(key) >= 0;
+ }
+
+ @Override
+ public boolean containsValue(int value) {
+  if (_containsZeroKey && _zeroValue == value) {
+   return true;
+  }
+  int[] keys = _keys;
+  int[] values = _values;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0 && values[pos] == value) {
+    return true;
+   }
+  }
+  return false;
+ }
+
+ @Override
+ public int get(int key) {
+  return getOrDefault(key, 0);
+ }
+
+ @Override
+ public int getOrDefault(int key, int defaultValue) {
+  if (key == 0) {
+   return _containsZeroKey ? _zeroValue : defaultValue;
+  }
+  int pos = slotOf(key);
+  return pos >= 0 ? _values[pos] : defaultValue;
+ }
+
+ @Override
+ public int put(int key, int value) {
+  if (key == 0) {
+   int old = _zeroValue;
+   _zeroValue = value;
+   if (!_containsZeroKey) {
+    insertZeroKey();
+    return 0;
+   }
+   return old;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   int old = _values[pos];
+   _values[pos] = value;
+   return old;
+  }
+  insert(-pos - 1, key, value);
+  return 0;
+ }
+
+ @Override
+ public boolean putIfAbsent(int key, int value) {
+  if (key == 0) {
+   if (_containsZeroKey) {
+    return false;
+   }
+   _zeroValue = value;
+   insertZeroKey();
+   return true;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   return false;
+  }
+  insert(-pos - 1, key, value);
+  return true;
+ }
+
+ @Override
+ public int addTo(int key, int increment) {
+  if (key == 0) {
+   if (!_containsZeroKey) {
+    _zeroValue = 0;
+    insertZeroKey();
+   }
+   return _zeroValue += increment;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   return _values[pos] += increment;
+  }
+  insert(-pos - 1, key, increment);
+  return increment;
+ }
+
+ @Override
+ public int increment(int key) {
+  return addTo(key, 1);
+ }
+
+ @Override
+ public int compute(int key, IntUnaryOperator function) {
+  Objects.requireNonNull(function);
+  if (key == 0) {
+   int value = function.applyAsInt(_containsZeroKey ? _zeroValue : 0);
+   _zeroValue = value;
+   if (!_containsZeroKey) {
+    insertZeroKey();
+   }
+   return value;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   return _values[pos] = function.applyAsInt(_values[pos]);
+  }
+  int value = function.applyAsInt(0);
+  insert(-pos - 1, key, value);
+  return value;
+ }
+
+ @Override
+ public int computeIfAbsent(int key, IntUnaryOperator function) {
+  Objects.requireNonNull(function);
+  if (key == 0) {
+   if (!_containsZeroKey) {
+    _zeroValue = function.applyAsInt(key);
+    insertZeroKey();
+   }
+   return _zeroValue;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   return _values[pos];
+  }
+  int value = function.applyAsInt(key);
+  insert(-pos - 1, key, value);
+  return value;
+ }
+
+ @Override
+ public int computeIfPresent(int key, IntUnaryOperator function) {
+  Objects.requireNonNull(function);
+  if (key == 0) {
+   if (_containsZeroKey) {
+    _zeroValue = function.applyAsInt(_zeroValue);
+   }
+   return _zeroValue;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   return _values[pos] = function.applyAsInt(_values[pos]);
+  }
+  return 0;
+ }
+
+ @Override
+ public int merge(int key, int value, IntBinaryOperator function) {
+  Objects.requireNonNull(function);
+  if (key == 0) {
+   if (_containsZeroKey) {
+    _zeroValue = function.applyAsInt(_zeroValue, value);
+   } else {
+    _zeroValue = value;
+    insertZeroKey();
+   }
+   return _zeroValue;
+  }
+  int pos = slotOf(key);
+  if (pos >= 0) {
+   return _values[pos] = function.applyAsInt(_values[pos], value);
+  }
+  insert(-pos - 1, key, value);
+  return value;
+ }
+
+ @Override
+ public int remove(int key) {
+  if (key == 0) {
+   if (!_containsZeroKey) {
+    return 0;
+   }
+   int old = _zeroValue;
+   _containsZeroKey = false;
+   _zeroValue = 0;
+   _size--;
+   _modCount++;
+   return old;
+  }
+  int pos = slotOf(key);
+  if (pos < 0) {
+   return 0;
+  }
+  int old = _values[pos];
+  shiftKeys(pos);
+  _occupied--;
+  _size--;
+  _modCount++;
+  return old;
+ }
+
+ @Override
+ public IntCollection keys() {
+  return new KeyView();
+ }
+
+ @Override
+ public IntCollection values() {
+  return new ValueView();
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Grows my table, if necessary, so that I can hold at least
+  * <i>expectedSize</i> mappings without resizing.
+  *
+  * @param expectedSize the number of mappings I should be able to hold
+  */
+ public void ensureCapacity(int expectedSize) {
+  int needed = PrimitiveHash.tableSize(expectedSize, _loadFactor);
+  if (needed > _keys.length) {
+   rehash(needed);
+  }
+ }
+
+ /**
+  * Reduce my table, if possible, to the smallest length that holds my current
+  * {@link #size size} within my load factor.
+  */
+ public void trimToSize() {
+  int needed = PrimitiveHash.tableSize(_size, _loadFactor);
+  if (needed < _keys.length) {
+   rehash(needed);
+  }
+ }
+
+ // Object methods
+ //-------------------------------------------------------------------------
+ @Override
+ public boolean equals(Object that) {
+  if (this == that) {
+   return true;
+  } else if (that instanceof IntIntMap) {
+   IntIntMap thatMap = (IntIntMap) that;
+   if (_size != thatMap.size()) {
+    return false;
+   }
+   if (_containsZeroKey && !(thatMap.containsKey(0)
+    && thatMap.get(0) == _zeroValue)) {
+    return false;
+   }
+   int[] keys = _keys;
+   int[] values = _values;
+   for (int pos = 0; pos < keys.length; pos++) {
+    if (keys[pos] != 0 && !(thatMap.containsKey(keys[pos])
+     && thatMap.get(keys[pos]) == values[pos])) {
+     return false;
+    }
+   }
+   return true;
+  } else {
+   return false;
+  }
+ }
+
+ @Override
+ public int hashCode() {
+  int hash = 0;
+  if (_containsZeroKey) {
+   hash += Integer.hashCode(_zeroValue);
+  }
+  int[] keys = _keys;
+  int[] values = _values;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0) {
+    hash += Integer.hashCode(keys[pos]) ^ Integer.hashCode(values[pos]);
+   }
+  }
+  return hash;
+ }
+
+ @Override
+ public String toString() {
+  StringBuilder buf = new StringBuilder();
+  buf.append("{");
+  if (_containsZeroKey) {
+   buf.append("0=").append(_zeroValue);
+  }
+  int[] keys = _keys;
+  int[] values = _values;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0) {
+    if (buf.length() > 1) {
+     buf.append(", ");
+    }
+    buf.append(keys[pos]).append('=').append(values[pos]);
+   }
+  }
+  buf.append("}");
+  return buf.toString();
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns the slot holding the non-zero <i>key</i>, or
+  * <code>(-(insertion slot) - 1)</code> if it is not present.
+  */
+ private int slotOf(int key) {
+  int[] keys = _keys;
+  int mask = keys.length - 1;
+  int pos = PrimitiveHash.mix(key) & mask;
+  int curr;
+  while ((curr = keys[pos]) != 0) {
+   if (curr == key) {
+    return pos;
+   }
+   pos = (pos + 1) & mask;
+  }
+  return -pos - 1;
+ }
+
+ private void insert(int pos, int key, int value) {
+  PrimitiveHash.checkRoom(_occupied, _maxFill, _keys.length);
+  _keys[pos] = key;
+  _values[pos] = value;
+  if (++_occupied > _maxFill) {
+   rehash(_keys.length * 2);
+  }
+  _size++;
+  _modCount++;
+ }
+
+ private void insertZeroKey() {
+  _containsZeroKey = true;
+  _size++;
+  _modCount++;
+ }
+
+ private void allocate(int tableSize) {
+  _keys = new int[tableSize];
+  _values = new int[tableSize];
+  _maxFill = PrimitiveHash.maxFill(tableSize, _loadFactor);
+ }
+
+ private void rehash(int tableSize) {
+  int[] oldKeys = _keys;
+  int[] oldValues = _values;
+  allocate(tableSize);
+  int[] keys = _keys;
+  int[] values = _values;
+  int mask = keys.length - 1;
+  for (int i = 0; i < oldKeys.length; i++) {
+   int key = oldKeys[i];
+   if (key != 0) {
+    int pos = PrimitiveHash.mix(key) & mask;
+    while (keys[pos] != 0) {
+     pos = (pos + 1) & mask;
+    }
+    keys[pos] = key;
+    values[pos] = oldValues[i];
+   }
+  }
+  _modCount++;
+ }
+
+ /**
+  * Empties slot <i>pos</i> and moves back any later entries of the probe
+  * sequence that would otherwise become unreachable.
+  */
+ private void shiftKeys(int pos) {
+  int[] keys = _keys;
+  int[] values = _values;
+  int mask = keys.length - 1;
+  int last;
+  for (;;) {
+   pos = ((last = pos) + 1) & mask;
+   int curr;
+   for (;;) {
+    if ((curr = keys[pos]) == 0) {
+     keys[last] = 0;
+     return;
+    }
+    int slot = PrimitiveHash.mix(curr) & mask;
+    if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+     break;
+    }
+    pos = (pos + 1) & mask;
+   }
+   keys[last] = curr;
+   values[last] = values[pos];
+  }
+ }
+
+ private void writeObject(ObjectOutputStream out) throws IOException {
+  out.defaultWriteObject();
+  out.writeInt(_size);
+  if (_containsZeroKey) {
+   out.writeInt(0);
+   out.writeInt(_zeroValue);
+  }
+  int[] keys = _keys;
+  int[] values = _values;
+  for (int pos = 0; pos < keys.length; pos++) {
+   if (keys[pos] != 0) {
+    out.writeInt(keys[pos]);
+    out.writeInt(values[pos]);
+   }
+  }
+ }
+
+ private void readObject(ObjectInputStream in) throws IOException,
+  ClassNotFoundException {
+  in.defaultReadObject();
+  int size = in.readInt();
+  allocate(PrimitiveHash.tableSize(size, _loadFactor));
+  for (int i = 0; i < size; i++) {
+   int key = in.readInt();
+   put(key, in.readInt());
+  }
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private final float _loadFactor;
+ private transient int[] _keys = null;
+ private transient int[] _values = null;
+ private transient boolean _containsZeroKey = false;
+ private transient int _zeroValue = 0;
+ private transient int _occupied = 0;
+ private transient int _maxFill = 0;
+ private transient int _size = 0;
+ private transient int _modCount = 0;
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ /**
+  * Walks the table from the top down. Removing a mapping can move entries
+  * from the bottom of the table, which have not been visited yet, across the
+  * wrap-around into the visited part; those are remembered and returned at
+  * the end.
+  */
+ private abstract class TableIterator {
+
+  TableIterator() {
+   _pos = _keys.length;
+   _remaining = _size;
+   _zeroPending = _containsZeroKey;
+   _expectedModCount = _modCount;
+  }
+
+  public boolean hasNext() {
+   assertNotComodified();
+   return _remaining > 0;
+  }
+
+  /**
+   * Advances to the next mapping, leaving its key and value in
+   * <code>_lastKey</code> and <code>_lastValue</code>.
+   */
+  void advance() {
+   assertNotComodified();
+   if (_remaining == 0) {
+    throw new NoSuchElementException();
+   }
+   _remaining--;
+   if (_zeroPending) {
+    _zeroPending = false;
+    _last = ZERO;
+    _lastKey = 0;
+    _lastValue = _zeroValue;
+    return;
+   }
+   int[] keys = _keys;
+   while (--_pos >= 0) {
+    if (keys[_pos] != 0) {
+     _last = _pos;
+     _lastKey = keys[_pos];
+     _lastValue = _values[_pos];
+     return;
+    }
+   }
+   _last = WRAPPED;
+   _lastKey = _wrappedKeys.get(_wrappedIndex);
+   _lastValue = _wrappedValues.get(_wrappedIndex);
+   _wrappedIndex++;
+  }
+
+  public void remove() {
+   assertNotComodified();
+   if (_last == NONE) {
+    throw new IllegalStateException();
+   }
+   if (_last == ZERO || _last == WRAPPED) {
+    IntIntHashMap.this.remove(_lastKey);
+   } else {
+    shiftKeys(_last);
+    _occupied--;
+    _size--;
+    _modCount++;
+   }
+   _last = NONE;
+   _expectedModCount = _modCount;
+  }
+
+  /**
+   * Like {@link IntIntHashMap#shiftKeys}, but remembers entries that move from
+   * the unvisited bottom of the table into the visited top.
+   */
+  private void shiftKeys(int pos) {
+   int[] keys = _keys;
+   int[] values = _values;
+   int mask = keys.length - 1;
+   int last;
+   for (;;) {
+    pos = ((last = pos) + 1) & mask;
+    int curr;
+    for (;;) {
+     if ((curr = keys[pos]) == 0) {
+      keys[last] = 0;
+      return;
+     }
+     int slot = PrimitiveHash.mix(curr) & mask;
+     if (last <= pos ? last >= slot || slot > pos
+      : last >= slot && slot > pos) {
+      break;
+     }
+     pos = (pos + 1) & mask;
+    }
+    if (pos < last) {
+     if (_wrappedKeys == null) {
+      _wrappedKeys = new ArrayIntList(2);
+      _wrappedValues = new ArrayIntList(2);
+     }
+     _wrappedKeys.add(curr);
+     _wrappedValues.add(values[pos]);
+    }
+    keys[last] = curr;
+    values[last] = values[pos];
+   }
+  }
+
+  private void assertNotComodified() {
+   if (_expectedModCount != _modCount) {
+    throw new ConcurrentModificationException();
+   }
+  }
+
+  private static final int NONE = -1;
+  private static final int ZERO = -2;
+  private static final int WRAPPED = -3;
+
+  int _lastKey;
+  int _lastValue;
+  private int _pos;
+  private int _remaining;
+  private boolean _zeroPending;
+  private int _last = NONE;
+  private ArrayIntList _wrappedKeys = null;
+  private ArrayIntList _wrappedValues = null;
+  private int _wrappedIndex = 0;
+  private int _expectedModCount;
+ }
+
+ private final class KeyIterator extends TableIterator implements
+  IntIterator {
+
+  @Override
+  public int next() {
+   advance();
+   return _lastKey;
+  }
+ }
+
+ private final class ValueIterator extends TableIterator implements
+  IntIterator {
+
+  @Override
+  public int next() {
+   advance();
+   return _lastValue;
+  }
+ }
+
+ private final class KeyView extends AbstractIntCollection {
+
+  @Override
+  public IntIterator iterator() {
+   return new KeyIterator();
+  }
+
+  @Override
+  public int size() {
+   return _size;
+  }
+
+  @Override
+  public boolean contains(int element) {
+   return containsKey(element);
+  }
+
+  @Override
+  public boolean removeElement(int element) {
+   if (containsKey(element)) {
+    remove(element);
+    return true;
+   }
+   return false;
+  }
+
+  @Override
+  public void clear() {
+   IntIntHashMap.this.clear();
+  }
+ }
+
+ private final class ValueView extends AbstractIntCollection {
+
+  @Override
+  public IntIterator iterator() {
+   return new ValueIterator();
+  }
+
+  @Override
+  public int size() {
+   return _size;
+  }
+
+  @Override
+  public boolean contains(int element) {
+   return containsValue(element);
+  }
+
+  @Override
+  public void clear() {
+   IntIntHashMap.this.clear();
+  }
+ }
+}
@@ -16,6 +16,9 @@
  */
 package org.apache.commons.collections.primitives;
 
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
+
 /**
  * An ordered collection of <code>int</code> values.
  *
@@ -231,4 +234,23 @@ public interface IntList extends IntCollection {
   */
  IntList subList(int fromIndex, int toIndex);
 
+ /**
+  * Replaces each of my elements with the result of applying the given
+  * operator to it (optional operation).
+  * <p>
+  * The default implementation replaces each element through my
+  * {@link #listIterator() list iterator}.
+  *
+  * @param operator the operator to apply to each element
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>operator</i> is <code>null</code>
+  */
+ default void replaceAll(IntUnaryOperator operator) {
+  Objects.requireNonNull(operator);
+  for (IntListIterator iter = listIterator(); iter.hasNext();) {
+   iter.set(operator.applyAsInt(iter.next()));
+  }
+ }
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.Collection;
+import java.util.function.IntFunction;
+
+/**
+ * A map from <code>int</code> keys to object values. Lookups never box the
+ * key. As in {@link java.util.Map java.util.Map}, <code>null</code> is
+ * returned for a missing key; use {@link #containsKey} to tell a missing key
+ * from one mapped to <code>null</code>.
+ *
+ * @param <V> the type of the values
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public interface IntObjectMap<V> {
+
+ /**
+  * Returns the number of key-value mappings I contain.
+  *
+  * @return the number of mappings I contain
+  */
+ int size();
+
+ /**
+  * Returns <code>true</code> iff I contain no mappings.
+  *
+  * @return <code>true</code> iff I contain no mappings
+  */
+ boolean isEmpty();
+
+ /**
+  * Removes all my mappings (optional operation).
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ void clear();
+
+ /**
+  * Returns <code>true</code> iff I contain a mapping for the specified key.
+  *
+  * @param key the key whose presence is to be tested
+  * @return <code>true</code> iff I contain a mapping for <i>key</i>
+  */
+ boolean containsKey(int key);
+
+ /**
+  * Returns <code>true</code> iff I map one or more keys to a value equal to
+  * the specified value.
+  *
+  * @param value the value whose presence is to be tested
+  * @return <code>true</code> iff I map at least one key to <i>value</i>
+  */
+ boolean containsValue(Object value);
+
+ /**
+  * Returns the value mapped to the specified key, or <code>null</code> if I
+  * contain no mapping for it.
+  *
+  * @param key the key whose value is to be returned
+  * @return the value mapped to <i>key</i>, or <code>null</code>
+  */
+ V get(int key);
+
+ /**
+  * Returns the value mapped to the specified key, or <i>defaultValue</i> if I
+  * contain no mapping for it.
+  *
+  * @param key the key whose value is to be returned
+  * @param defaultValue the value to return when <i>key</i> is not mapped
+  * @return the value mapped to <i>key</i>, or <i>defaultValue</i>
+  */
+ V getOrDefault(int key, V defaultValue);
+
+ /**
+  * Maps the specified key to the specified value (optional operation).
+  *
+  * @param key the key to map
+  * @param value the value to map <i>key</i> to
+  * @return the value previously mapped to <i>key</i>, or <code>null</code> if
+  * there was none
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ V put(int key, V value);
+
+ /**
+  * Maps the specified key to the specified value unless it is already mapped
+  * to a non-<code>null</code> value (optional operation). As in
+  * {@link java.util.Map#putIfAbsent}, a key mapped to <code>null</code> is
+  * treated as absent and remapped.
+  *
+  * @param key the key to map
+  * @param value the value to map <i>key</i> to
+  * @return the non-<code>null</code> value already mapped to <i>key</i>, or
+  * <code>null</code> if <i>value</i> was mapped
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ V putIfAbsent(int key, V value);
+
+ /**
+  * Returns the value mapped to the specified key, first mapping it to the
+  * result of applying <i>function</i> to the key if it is not mapped or is
+  * mapped to <code>null</code> (optional operation). A <code>null</code>
+  * result is not mapped. This matches
+  * {@link java.util.Map#computeIfAbsent}.
+  *
+  * @param key the key whose value is to be returned
+  * @param function the function computing a value from the key
+  * @return the value now mapped to <i>key</i>, or <code>null</code>
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>function</i> is <code>null</code>
+  */
+ V computeIfAbsent(int key, IntFunction<? extends V> function);
+
+ /**
+  * Removes the mapping for the specified key, if present (optional
+  * operation).
+  *
+  * @param key the key whose mapping is to be removed
+  * @return the value that was mapped to <i>key</i>, or <code>null</code> if
+  * there was none
+  * @throws UnsupportedOperationException when this operation is not supported
+  */
+ V remove(int key);
+
+ /**
+  * Returns a view of my keys. Removing an element from the view removes the
+  * corresponding mapping from me; the view does not support adding.
+  *
+  * @return a view of my keys
+  */
+ IntCollection keys();
+
+ /**
+  * Returns a view of my values. Removing an element from the view removes one
+  * corresponding mapping from me; the view does not support adding.
+  *
+  * @return a view of my values
+  */
+ Collection<V> values();
+
+ /**
+  * Returns <code>true</code> iff <i>that</i> is a <code>IntObjectMap</code>
+  * that contains exactly the same mappings as me, comparing values with
+  * {@link Object#equals equals}.
+  *
+  * @param that the object to compare to me
+  * @return <code>true</code> iff <i>that</i> is an equal map
+  */
+ @Override
+ boolean equals(Object that);
+
+ /**
+  * Returns my hash code, defined as the sum over my mappings of the hash code
+  * of the boxed key xor the hash code of the value, so that it matches the
+  * hash code of an equal {@link java.util.Map Map}.
+  *
+  * @return my hash code
+  */
+ @Override
+ int hashCode();
+}
@@ -43,9 +43,7 @@ public class IntStack {
   * @param numbas
   */
  public IntStack(int[] numbas) {
-  for (int ii = 0; ii < numbas.length; ii++) {
-   list.add(numbas[ii]);
-  }
+  list.addAll(numbas, 0, numbas.length);
  }
 
  /**
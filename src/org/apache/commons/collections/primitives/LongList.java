@@ -16,6 +16,9 @@
  */
 package org.apache.commons.collections.primitives;
 
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
 /**
  * An ordered collection of <code>long</code> values.
  *
@@ -233,4 +236,23 @@ public interface LongList extends LongCollection {
   */
  LongList subList(int fromIndex, int toIndex);
 
+ /**
+  * Replaces each of my elements with the result of applying the given
+  * operator to it (optional operation).
+  * <p>
+  * The default implementation replaces each element through my
+  * {@link #listIterator() list iterator}.
+  *
+  * @param operator the operator to apply to each element
+  *
+  * @throws UnsupportedOperationException when this operation is not supported
+  * @throws NullPointerException if <i>operator</i> is <code>null</code>
+  */
+ default void replaceAll(LongUnaryOperator operator) {
+  Objects.requireNonNull(operator);
+  for (LongListIterator iter = listIterator(); iter.hasNext();) {
+   iter.set(operator.applyAsLong(iter.next()));
+  }
+ }
+
 }
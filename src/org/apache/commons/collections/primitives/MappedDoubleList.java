@@ -0,0 +1,534 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A {@link DoubleList} backed by a memory-mapped file of <code>double</code>s,
+ * so that a column on disk can be used without reading it into the heap first,
+ * and can be larger than physical memory.
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes: the
+ * <code>int</code> {@link #MAGIC}, the element width {@link Double#BYTES}, and
+ * my size as a <code>long</code>, all in my byte order. My elements follow. The
+ * file grows ahead of my size as I do, so it may end in unused space, but only
+ * the number of elements the header records are ever read. {@link #force} and
+ * {@link #close} store my size in the header; after a crash, elements appended
+ * since the last of those are dropped. A file of raw elements without a header
+ * can be opened read-only with {@link #openRaw}.
+ * <p>
+ * The file is mapped in chunks of {@link #CHUNK_SIZE} elements, which lifts
+ * the two gigabyte limit of a single {@link MappedByteBuffer}. A list opened
+ * read-write supports {@link #set set} and appending elements. Changes reach
+ * the file as the operating system writes back mapped pages; call
+ * {@link #force} to write them back at once. Closing me unmaps the file
+ * before cutting it back to my size, where the running JDK allows it.
+ * Inserting elements before my end and removing elements are not supported,
+ * since they would rewrite the rest of the file.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class MappedDoubleList extends RandomAccessDoubleList
+ implements Closeable {
+
+ /**
+  * The number of elements mapped by each chunk.
+  */
+ public static final int CHUNK_SIZE = 1 << 25;
+
+ /**
+  * The number of bytes in the header at the start of my file.
+  */
+ public static final int HEADER_SIZE = 16;
+
+ /**
+  * The number that starts the header of my file.
+  */
+ public static final int MAGIC = 0x5052494D;
+
+ private static final int CHUNK_SHIFT = 25;
+ private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+ private static final int WIDTH_OFFSET = 4;
+ private static final int SIZE_OFFSET = 8;
+
+ /**
+  * The number of elements copied per step by {@link #addAll}.
+  */
+ private static final int COPY_CHUNK = 8192;
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Maps the given file, which holds big-endian <code>double</code>s.
+  *
+  * @param file the file to map
+  * @param writable <code>true</code> to open the file read-write, creating
+  * it if it does not exist, <code>false</code> to open it read-only
+  * @throws IOException if the file cannot be opened or mapped, or its
+  * header does not describe a list of <code>double</code>s that fits in it
+  */
+ public MappedDoubleList(Path file, boolean writable) throws IOException {
+  this(file, writable, ByteOrder.BIG_ENDIAN);
+ }
+
+ /**
+  * Maps the given file, which holds <code>double</code>s in the given byte
+  * order. An empty file holds an empty list; when it is opened read-write,
+  * its header is written.
+  *
+  * @param file the file to map
+  * @param writable <code>true</code> to open the file read-write, creating
+  * it if it does not exist, <code>false</code> to open it read-only
+  * @param order the byte order of the header and elements in the file
+  * @throws IOException if the file cannot be opened or mapped, or its
+  * header does not describe a list of <code>double</code>s that fits in it
+  */
+ public MappedDoubleList(Path file, boolean writable, ByteOrder order)
+  throws IOException {
+  this(file, writable, order, false);
+ }
+
+ private MappedDoubleList(Path file, boolean writable, ByteOrder order,
+  boolean raw) throws IOException {
+  _order = order;
+  _writable = writable;
+  _offset = raw ? 0 : HEADER_SIZE;
+  _channel = writable
+   ? FileChannel.open(file, StandardOpenOption.READ,
+    StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+   : FileChannel.open(file, StandardOpenOption.READ);
+  try {
+   long length = _channel.size();
+   long size = 0;
+   if (raw) {
+    size = length / Double.BYTES;
+    if (length % Double.BYTES != 0 || size > Integer.MAX_VALUE) {
+     throw new IOException("File length " + length
+      + " is not a valid length for a list of doubles");
+    }
+   } else if (length > 0 || writable) {
+    size = readHeader(length);
+   }
+   _size = (int) size;
+   map(_size);
+  } catch (IOException | RuntimeException e) {
+   unmap();
+   _channel.close();
+   throw e;
+  }
+ }
+
+ /**
+  * Maps the given file read-only as raw <code>double</code>s in the given byte
+  * order, with no header. Its length must be a whole number of elements.
+  *
+  * @param file the file to map
+  * @param order the byte order of the elements in the file
+  * @return a read-only list of the elements in <i>file</i>
+  * @throws IOException if the file cannot be opened or mapped, or its
+  * length is not a whole number of elements
+  */
+ public static MappedDoubleList openRaw(Path file, ByteOrder order)
+  throws IOException {
+  return new MappedDoubleList(file, false, order, true);
+ }
+
+ // DoubleList methods
+ //-------------------------------------------------------------------------
+ @Override
+ public double get(int index) {
+  checkRange(index);
+  return _chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+ }
+
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Replaces the element at the specified position in me with the specified
+  * element (optional operation).
+  *
+  * @param index the index of the element to change
+  * @param element the value to be stored at the specified position
+  * @return the value previously stored at the specified position
+  *
+  * @throws UnsupportedOperationException when I am read-only
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public double set(int index, double element) {
+  checkRange(index);
+  checkWritable();
+  incrModCount();
+  DoubleBuffer chunk = _chunks[index >>> CHUNK_SHIFT];
+  double oldval = chunk.get(index & CHUNK_MASK);
+  chunk.put(index & CHUNK_MASK, element);
+  return oldval;
+ }
+
+ /**
+  * Appends the specified element, growing my file if need be (optional
+  * operation). Only <i>index</i> equal to my {@link #size size} is
+  * supported.
+  *
+  * @param index the index at which to insert the element
+  * @param element the value to insert
+  *
+  * @throws UnsupportedOperationException when I am read-only, or
+  * <i>index</i> is not my size
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  * @throws UncheckedIOException if my file cannot be grown
+  */
+ @Override
+ public void add(int index, double element) {
+  checkAppend(index);
+  grow(1);
+  _chunks[_size >>> CHUNK_SHIFT].put(_size & CHUNK_MASK, element);
+  _size++;
+ }
+
+ @Override
+ public boolean addAll(DoubleCollection collection) {
+  return addAll(size(), collection);
+ }
+
+ /**
+  * Appends all of the elements in the specified collection, growing my file
+  * if need be (optional operation). Only <i>index</i> equal to my
+  * {@link #size size} is supported.
+  * <p>
+  * The elements are copied in small batches, through
+  * {@link RandomAccessDoubleList#copyInto copyInto} for random access lists and
+  * the collection's iterator otherwise, so the collection is never copied
+  * whole onto the heap. When the collection is me or a view of me, it is
+  * first copied into a temporary {@link DirectDoubleList}.
+  *
+  * @param index the index at which to insert the first element
+  * @param collection the collection of elements to add
+  * @return <code>true</code> iff I changed as a result of this call
+  *
+  * @throws UnsupportedOperationException when I am read-only, or
+  * <i>index</i> is not my size
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  * @throws UncheckedIOException if my file cannot be grown
+  */
+ @Override
+ public boolean addAll(int index, DoubleCollection collection) {
+  checkAppend(index);
+  if (collection instanceof RandomAccessDoubleList
+   && ((RandomAccessDoubleList) collection).backingList() == this) {
+   try (DirectDoubleList copy = new DirectDoubleList(collection)) {
+    return addAll(index, copy);
+   }
+  }
+  int length = collection.size();
+  if (length == 0) {
+   return false;
+  }
+  grow(length);
+  double[] batch = new double[Math.min(length, COPY_CHUNK)];
+  if (collection instanceof RandomAccessDoubleList) {
+   RandomAccessDoubleList that = (RandomAccessDoubleList) collection;
+   for (int done = 0; done < length;) {
+    int n = Math.min(batch.length, length - done);
+    that.copyInto(done, batch, 0, n);
+    write(_size + done, batch, n);
+    done += n;
+   }
+  } else {
+   DoubleIterator iter = collection.iterator();
+   for (int done = 0; done < length;) {
+    int n = Math.min(batch.length, length - done);
+    for (int i = 0; i < n; i++) {
+     batch[i] = iter.next();
+    }
+    write(_size + done, batch, n);
+    done += n;
+   }
+  }
+  _size += length;
+  return true;
+ }
+
+ @Override
+ protected void copyInto(int index, double[] dest, int destOffset, int length) {
+  ensureOpen();
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+  for (int done = 0; done < length;) {
+   int pos = index + done;
+   DoubleBuffer chunk = _chunks[pos >>> CHUNK_SHIFT].duplicate();
+   chunk.position(pos & CHUNK_MASK);
+   int n = Math.min(chunk.remaining(), length - done);
+   chunk.get(dest, destOffset + done, n);
+   done += n;
+  }
+ }
+
+ // file methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns <code>true</code> iff I was opened read-only.
+  *
+  * @return <code>true</code> iff I am read-only
+  */
+ public boolean isReadOnly() {
+  return !_writable;
+ }
+
+ /**
+  * Writes any changes to my elements back to my file, then records my size
+  * in its header, and returns once both have reached the storage device.
+  * Has no effect when I am read-only.
+  *
+  * @throws IllegalStateException if I have been closed
+  */
+ public void force() {
+  ensureOpen();
+  if (_writable) {
+   for (int i = 0; i < _maps.length; i++) {
+    _maps[i].force();
+   }
+   _header.putLong(SIZE_OFFSET, _size);
+   _header.force();
+  }
+ }
+
+ /**
+  * Returns <code>true</code> iff I have been {@link #close closed}.
+  *
+  * @return <code>true</code> iff I have been closed
+  */
+ public boolean isClosed() {
+  return _chunks == null;
+ }
+
+ /**
+  * Records my size in my file's header, if I am writable, unmaps the file
+  * and closes it. If the file could be unmapped it is also cut back to my
+  * size; otherwise the unused space at its end is left, and ignored when
+  * the file is opened again. Every method except this one and
+  * {@link #isClosed} throws an {@link IllegalStateException} afterwards.
+  * Closing a closed list has no effect.
+  *
+  * @throws IOException if my file cannot be cut back or closed
+  */
+ @Override
+ public void close() throws IOException {
+  if (_chunks == null) {
+   return;
+  }
+  incrModCount();
+  try {
+   if (_writable) {
+    _header.putLong(SIZE_OFFSET, _size);
+   }
+   if (unmap() && _writable) {
+    _channel.truncate(_offset + (long) _size * Double.BYTES);
+   }
+  } finally {
+   _channel.close();
+  }
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ /**
+  * Reads and checks the header of my file, which is <i>length</i> bytes
+  * long, writing a new one when the file is empty, and returns the size it
+  * records.
+  */
+ private long readHeader(long length) throws IOException {
+  if (length > 0 && length < HEADER_SIZE) {
+   throw new IOException("File length " + length
+    + " is too short for a list header");
+  }
+  _header = _channel.map(_writable
+   ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+   0, HEADER_SIZE);
+  _header.order(_order);
+  if (length == 0) {
+   _header.putInt(0, MAGIC);
+   _header.putInt(WIDTH_OFFSET, Double.BYTES);
+   _header.putLong(SIZE_OFFSET, 0);
+   return 0;
+  }
+  if (_header.getInt(0) != MAGIC
+   || _header.getInt(WIDTH_OFFSET) != Double.BYTES) {
+   throw new IOException("File does not start with the header of a list"
+    + " of doubles in " + _order + " byte order");
+  }
+  long size = _header.getLong(SIZE_OFFSET);
+  if (size < 0 || size > Integer.MAX_VALUE
+   || size > (length - HEADER_SIZE) / Double.BYTES) {
+   throw new IOException("Header size " + size
+    + " does not fit in a file of length " + length);
+  }
+  return size;
+ }
+
+ /**
+  * Maps enough chunks to hold <i>capacity</i> elements, remapping my last
+  * chunk if it is only partly mapped and releasing its old mapping. In
+  * read-write mode, mapping past the end of my file grows it.
+  */
+ private void map(int capacity) throws IOException {
+  int count = (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+  int first = _maps == null ? 0 : Math.max(_maps.length - 1, 0);
+  MappedByteBuffer[] maps = _maps == null
+   ? new MappedByteBuffer[count] : Arrays.copyOf(_maps, count);
+  DoubleBuffer[] chunks = _chunks == null
+   ? new DoubleBuffer[count] : Arrays.copyOf(_chunks, count);
+  FileChannel.MapMode mode = _writable
+   ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+  for (int i = first; i < count; i++) {
+   long start = (long) i << CHUNK_SHIFT;
+   int length = (int) Math.min(CHUNK_SIZE, capacity - start);
+   if (chunks[i] == null || chunks[i].capacity() != length) {
+    MappedByteBuffer map = _channel.map(mode,
+     _offset + start * Double.BYTES, (long) length * Double.BYTES);
+    if (maps[i] != null && !DirectBuffers.free(maps[i])) {
+     _stale = true;
+    }
+    maps[i] = map;
+    chunks[i] = maps[i].order(_order).asDoubleBuffer();
+   }
+  }
+  _maps = maps;
+  _chunks = chunks;
+  _capacity = capacity;
+ }
+
+ /**
+  * Drops my mappings and releases them, returning <code>true</code> iff all
+  * of them, and every mapping I replaced while growing, were released at
+  * once rather than left to the garbage collector.
+  */
+ private boolean unmap() {
+  MappedByteBuffer[] maps = _maps;
+  MappedByteBuffer header = _header;
+  _maps = null;
+  _chunks = null;
+  _header = null;
+  boolean released = !_stale;
+  if (maps != null) {
+   for (int i = 0; i < maps.length; i++) {
+    released &= maps[i] == null || DirectBuffers.free(maps[i]);
+   }
+  }
+  if (header != null) {
+   released &= DirectBuffers.free(header);
+  }
+  return released;
+ }
+
+ /**
+  * Copies the first <i>length</i> elements of <i>src</i> into me, starting
+  * at <i>index</i>, which may be past my size but not my capacity.
+  */
+ private void write(int index, double[] src, int length) {
+  for (int done = 0; done < length;) {
+   int pos = index + done;
+   DoubleBuffer chunk = _chunks[pos >>> CHUNK_SHIFT].duplicate();
+   chunk.position(pos & CHUNK_MASK);
+   int n = Math.min(chunk.remaining(), length - done);
+   chunk.put(src, done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Makes room for <i>length</i> more elements, growing my file by half as
+  * much again as my capacity when it is full.
+  */
+ private void grow(int length) {
+  if (length > Integer.MAX_VALUE - _size) {
+   throw new IllegalStateException("Size would exceed " + Integer.MAX_VALUE);
+  }
+  incrModCount();
+  int mincap = _size + length;
+  if (mincap > _capacity) {
+   long newcap = Math.min((_capacity * 3L) / 2 + 1, Integer.MAX_VALUE);
+   try {
+    map((int) Math.max(newcap, mincap));
+   } catch (IOException e) {
+    throw new UncheckedIOException(e);
+   }
+  }
+ }
+
+ private void ensureOpen() {
+  if (_chunks == null) {
+   throw new IllegalStateException("closed");
+  }
+ }
+
+ private void checkWritable() {
+  if (!_writable) {
+   throw new UnsupportedOperationException("read-only");
+  }
+ }
+
+ private void checkRange(int index) {
+  ensureOpen();
+  if (index < 0 || index >= _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and less than " + _size + ", found " + index);
+  }
+ }
+
+ private void checkAppend(int index) {
+  ensureOpen();
+  if (index < 0 || index > _size) {
+   throw new IndexOutOfBoundsException(
+    "Should be at least 0 and at most " + _size + ", found " + index);
+  }
+  checkWritable();
+  if (index != _size) {
+   throw new UnsupportedOperationException(
+    "Elements can only be appended, found index " + index);
+  }
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private final FileChannel _channel;
+ private final ByteOrder _order;
+ private final boolean _writable;
+ private final long _offset;
+ private MappedByteBuffer _header = null;
+ private MappedByteBuffer[] _maps = null;
+ private DoubleBuffer[] _chunks = null;
+ private int _capacity = 0;
+ private boolean _stale = false;
+ private int _size = 0;
+}
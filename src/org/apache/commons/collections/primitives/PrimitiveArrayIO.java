@@ -0,0 +1,1135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Bulk binary input and output of primitive arrays through
+ * {@link DataOutput} and {@link DataInput}. Elements are encoded exactly as
+ * the matching <code>DataOutput</code> method would write them one at a time
+ * (big-endian, one byte per <code>boolean</code>), but are converted through
+ * a {@link ByteBuffer} a block at a time and written with a single call per
+ * block, which is much faster than a method call per element.
+ * <p>
+ * The array backed lists of this package use these methods for their
+ * serialized form.
+ * <p>
+ * Elements can also be written to and read from NIO channels, in either byte
+ * order, through a direct buffer that each thread reuses from call to call.
+ * The channels must be in blocking mode.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class PrimitiveArrayIO {
+
+ /**
+  * The number of bytes converted per block.
+  */
+ private static final int BLOCK_SIZE = 8192;
+
+ /**
+  * The size in bytes of the direct buffers used for channel I/O.
+  */
+ private static final int CHANNEL_BLOCK_SIZE = 1 << 16;
+
+ /**
+  * Each thread's idle channel buffer, or <code>null</code> while the thread
+  * is using it.
+  */
+ private static final ThreadLocal<ByteBuffer[]> CHANNEL_BUFFER =
+  ThreadLocal.withInitial(() -> new ByteBuffer[1]);
+
+ private PrimitiveArrayIO() {
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeBoolean writeBoolean}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, boolean[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE)];
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length, length - done);
+   for (int i = 0; i < n; i++) {
+    block[i] = array[offset + done + i] ? (byte) 1 : (byte) 0;
+   }
+   out.write(block, 0, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readBoolean readBoolean}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, boolean[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE)];
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length, length - done);
+   in.readFully(block, 0, n);
+   for (int i = 0; i < n; i++) {
+    array[offset + done + i] = block[i] != 0;
+   }
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeByte writeByte}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, byte[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  out.write(array, offset, length);
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readByte readByte}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, byte[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  in.readFully(array, offset, length);
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeChar writeChar}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, char[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Character.BYTES)
+   * Character.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Character.BYTES, length - done);
+   buffer.clear();
+   buffer.asCharBuffer().put(array, offset + done, n);
+   out.write(block, 0, n * Character.BYTES);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readChar readChar}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, char[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Character.BYTES)
+   * Character.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Character.BYTES, length - done);
+   in.readFully(block, 0, n * Character.BYTES);
+   buffer.clear();
+   buffer.asCharBuffer().get(array, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeShort writeShort}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, short[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Short.BYTES)
+   * Short.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Short.BYTES, length - done);
+   buffer.clear();
+   buffer.asShortBuffer().put(array, offset + done, n);
+   out.write(block, 0, n * Short.BYTES);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readShort readShort}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, short[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Short.BYTES)
+   * Short.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Short.BYTES, length - done);
+   in.readFully(block, 0, n * Short.BYTES);
+   buffer.clear();
+   buffer.asShortBuffer().get(array, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeInt writeInt}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, int[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Integer.BYTES)
+   * Integer.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Integer.BYTES, length - done);
+   buffer.clear();
+   buffer.asIntBuffer().put(array, offset + done, n);
+   out.write(block, 0, n * Integer.BYTES);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readInt readInt}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, int[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Integer.BYTES)
+   * Integer.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Integer.BYTES, length - done);
+   in.readFully(block, 0, n * Integer.BYTES);
+   buffer.clear();
+   buffer.asIntBuffer().get(array, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeLong writeLong}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, long[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Long.BYTES)
+   * Long.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Long.BYTES, length - done);
+   buffer.clear();
+   buffer.asLongBuffer().put(array, offset + done, n);
+   out.write(block, 0, n * Long.BYTES);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readLong readLong}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, long[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Long.BYTES)
+   * Long.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Long.BYTES, length - done);
+   in.readFully(block, 0, n * Long.BYTES);
+   buffer.clear();
+   buffer.asLongBuffer().get(array, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeFloat writeFloat}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, float[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Float.BYTES)
+   * Float.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Float.BYTES, length - done);
+   buffer.clear();
+   buffer.asFloatBuffer().put(array, offset + done, n);
+   out.write(block, 0, n * Float.BYTES);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readFloat readFloat}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, float[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Float.BYTES)
+   * Float.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Float.BYTES, length - done);
+   in.readFully(block, 0, n * Float.BYTES);
+   buffer.clear();
+   buffer.asFloatBuffer().get(array, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>out</i>, in the format of {@link DataOutput#writeDouble writeDouble}.
+  *
+  * @param out the output to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>out</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(DataOutput out, double[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Double.BYTES)
+   * Double.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Double.BYTES, length - done);
+   buffer.clear();
+   buffer.asDoubleBuffer().put(array, offset + done, n);
+   out.write(block, 0, n * Double.BYTES);
+   done += n;
+  }
+ }
+
+ /**
+  * Reads <i>length</i> elements into <i>array</i>, starting at <i>offset</i>,
+  * from <i>in</i>, in the format of {@link DataInput#readDouble readDouble}.
+  *
+  * @param in the input to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the number of elements to read
+  * @throws IOException if <i>in</i> throws, or ends before <i>length</i>
+  * elements are read
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void readFully(DataInput in, double[] array, int offset,
+  int length) throws IOException {
+  checkRange(array.length, offset, length);
+  byte[] block = new byte[Math.min(length, BLOCK_SIZE / Double.BYTES)
+   * Double.BYTES];
+  ByteBuffer buffer = ByteBuffer.wrap(block);
+  for (int done = 0; done < length;) {
+   int n = Math.min(block.length / Double.BYTES, length - done);
+   in.readFully(block, 0, n * Double.BYTES);
+   buffer.clear();
+   buffer.asDoubleBuffer().get(array, offset + done, n);
+   done += n;
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, one byte per element.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, boolean[] array,
+  int offset, int length) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(ByteOrder.BIG_ENDIAN);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE, length - done);
+    buffer.clear();
+    for (int i = 0; i < n; i++) {
+     buffer.put(array[offset + done + i] ? (byte) 1 : (byte) 0);
+    }
+    buffer.flip();
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, one byte per element. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, boolean[] array,
+  int offset, int length) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(ByteOrder.BIG_ENDIAN);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE, length - done);
+    buffer.clear();
+    buffer.limit(n);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = buffer.remaining();
+    for (int i = 0; i < n; i++) {
+     array[offset + done + i] = buffer.get() != 0;
+    }
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, as raw bytes.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, byte[] array,
+  int offset, int length) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(ByteOrder.BIG_ENDIAN);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE, length - done);
+    buffer.clear();
+    buffer.put(array, offset + done, n);
+    buffer.flip();
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, as raw bytes. Fewer than <i>length</i>
+  * elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, byte[] array,
+  int offset, int length) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(ByteOrder.BIG_ENDIAN);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE, length - done);
+    buffer.clear();
+    buffer.limit(n);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = buffer.remaining();
+    buffer.get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, in the given byte order.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, char[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Character.BYTES, length - done);
+    buffer.clear();
+    buffer.asCharBuffer().put(array, offset + done, n);
+    buffer.limit(n * Character.BYTES);
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, in the given byte order. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, char[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Character.BYTES, length - done);
+    buffer.clear();
+    buffer.limit(n * Character.BYTES);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = wholeElements(buffer, Character.BYTES);
+    buffer.asCharBuffer().get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, in the given byte order.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, short[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Short.BYTES, length - done);
+    buffer.clear();
+    buffer.asShortBuffer().put(array, offset + done, n);
+    buffer.limit(n * Short.BYTES);
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, in the given byte order. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, short[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Short.BYTES, length - done);
+    buffer.clear();
+    buffer.limit(n * Short.BYTES);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = wholeElements(buffer, Short.BYTES);
+    buffer.asShortBuffer().get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, in the given byte order.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, int[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Integer.BYTES, length - done);
+    buffer.clear();
+    buffer.asIntBuffer().put(array, offset + done, n);
+    buffer.limit(n * Integer.BYTES);
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, in the given byte order. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, int[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Integer.BYTES, length - done);
+    buffer.clear();
+    buffer.limit(n * Integer.BYTES);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = wholeElements(buffer, Integer.BYTES);
+    buffer.asIntBuffer().get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, in the given byte order.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, long[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Long.BYTES, length - done);
+    buffer.clear();
+    buffer.asLongBuffer().put(array, offset + done, n);
+    buffer.limit(n * Long.BYTES);
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, in the given byte order. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, long[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Long.BYTES, length - done);
+    buffer.clear();
+    buffer.limit(n * Long.BYTES);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = wholeElements(buffer, Long.BYTES);
+    buffer.asLongBuffer().get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, in the given byte order.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, float[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Float.BYTES, length - done);
+    buffer.clear();
+    buffer.asFloatBuffer().put(array, offset + done, n);
+    buffer.limit(n * Float.BYTES);
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, in the given byte order. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, float[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Float.BYTES, length - done);
+    buffer.clear();
+    buffer.limit(n * Float.BYTES);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = wholeElements(buffer, Float.BYTES);
+    buffer.asFloatBuffer().get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Writes <i>length</i> elements of <i>array</i>, starting at <i>offset</i>, to
+  * <i>channel</i>, in the given byte order.
+  *
+  * @param channel the channel to write to
+  * @param array the array holding the elements to write
+  * @param offset the index in <i>array</i> of the first element to write
+  * @param length the number of elements to write
+  * @param order the byte order to write in
+  * @throws IOException if <i>channel</i> throws
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static void write(WritableByteChannel channel, double[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   for (int done = 0; done < length;) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Double.BYTES, length - done);
+    buffer.clear();
+    buffer.asDoubleBuffer().put(array, offset + done, n);
+    buffer.limit(n * Double.BYTES);
+    drain(channel, buffer);
+    done += n;
+   }
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Reads up to <i>length</i> elements into <i>array</i>, starting at
+  * <i>offset</i>, from <i>channel</i>, in the given byte order. Fewer than
+  * <i>length</i> elements are read only when the channel reaches end-of-stream.
+  *
+  * @param channel the channel to read from
+  * @param array the array to read into
+  * @param offset the index in <i>array</i> of the first element to read
+  * @param length the maximum number of elements to read
+  * @param order the byte order to read in
+  * @return the number of elements read
+  * @throws IOException if <i>channel</i> throws
+  * @throws EOFException if the channel ends part way through an
+  * element
+  * @throws IndexOutOfBoundsException if <i>offset</i> and <i>length</i> do
+  * not describe a range of <i>array</i>
+  */
+ public static int read(ReadableByteChannel channel, double[] array,
+  int offset, int length, ByteOrder order) throws IOException {
+  checkRange(array.length, offset, length);
+  ByteBuffer buffer = takeBuffer(order);
+  try {
+   int done = 0;
+   while (done < length) {
+    int n = Math.min(CHANNEL_BLOCK_SIZE / Double.BYTES, length - done);
+    buffer.clear();
+    buffer.limit(n * Double.BYTES);
+    boolean full = fill(channel, buffer);
+    buffer.flip();
+    n = wholeElements(buffer, Double.BYTES);
+    buffer.asDoubleBuffer().get(array, offset + done, n);
+    done += n;
+    if (!full) {
+     break;
+    }
+   }
+   return done;
+  } finally {
+   releaseBuffer(buffer);
+  }
+ }
+
+ /**
+  * Returns the capacity a list of <i>size</i> elements, each <i>bytes</i>
+  * bytes wide, should reserve before reading from a channel: room for a
+  * whole channel buffer's worth of elements more, so that a list whose
+  * growth policy adds little at a time still fills a buffer per read.
+  *
+  * @param size the number of elements in the list
+  * @param bytes the width of an element in bytes
+  * @return the capacity to reserve
+  */
+ static int readCapacity(int size, int bytes) {
+  return (int) Math.min((long) size + CHANNEL_BLOCK_SIZE / bytes,
+   Integer.MAX_VALUE);
+ }
+
+ private static ByteBuffer takeBuffer(ByteOrder order) {
+  Objects.requireNonNull(order);
+  ByteBuffer[] slot = CHANNEL_BUFFER.get();
+  ByteBuffer buffer = slot[0];
+  slot[0] = null;
+  if (buffer == null) {
+   buffer = ByteBuffer.allocateDirect(CHANNEL_BLOCK_SIZE);
+  }
+  buffer.clear();
+  return buffer.order(order);
+ }
+
+ private static void releaseBuffer(ByteBuffer buffer) {
+  CHANNEL_BUFFER.get()[0] = buffer;
+ }
+
+ private static void drain(WritableByteChannel channel, ByteBuffer buffer)
+  throws IOException {
+  while (buffer.hasRemaining()) {
+   channel.write(buffer);
+  }
+ }
+
+ /**
+  * Reads from the channel until the buffer is full, returning
+  * <code>false</code> if end-of-stream came first.
+  */
+ private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer)
+  throws IOException {
+  while (buffer.hasRemaining()) {
+   if (channel.read(buffer) < 0) {
+    return false;
+   }
+  }
+  return true;
+ }
+
+ private static int wholeElements(ByteBuffer buffer, int bytes)
+  throws EOFException {
+  if (buffer.remaining() % bytes != 0) {
+   throw new EOFException("Channel ended inside an element");
+  }
+  return buffer.remaining() / bytes;
+ }
+
+ private static void checkRange(int arrayLength, int offset, int length) {
+  if (offset < 0 || length < 0 || offset > arrayLength - length) {
+   throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset
+    + " + " + length + ") out of bounds for length " + arrayLength);
+  }
+ }
+}
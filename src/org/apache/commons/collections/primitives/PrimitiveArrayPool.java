@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of primitive arrays that array backed lists can borrow their
+ * backing arrays from, and return them to, so that lists created and dropped
+ * at a high rate do not allocate a new array each time.
+ * <p>
+ * Arrays are pooled in size classes: lengths that are powers of two from
+ * {@link #MIN_POOLED_LENGTH} up to a configurable maximum. A borrowed array
+ * is at least as long as requested and its contents are undefined. Each
+ * thread keeps a few arrays per size class to itself, so that borrowing and
+ * releasing on one thread takes no lock; arrays that do not fit there go to
+ * a bounded pool shared by all threads, and beyond that are left to the
+ * garbage collector. Both the arrays each thread keeps and those in the
+ * shared pool are limited in number per size class and type, and in total
+ * bytes. Released arrays whose length is not a size class are never pooled.
+ * <p>
+ * The arrays a thread keeps are reachable from that thread, not from the
+ * pool, so they outlive a pool that is dropped: they are only freed when
+ * the thread ends or its stale thread-local entry is expunged. Prefer a few
+ * long-lived pools, such as the {@link #getDefault default} one, to many
+ * short-lived ones.
+ * <p>
+ * An array must not be used after it has been released: it may be handed
+ * out again at any time. Counts of borrows, hits and misses are kept so that
+ * the effectiveness of a pool can be monitored.
+ *
+ * @see ArrayIntList#ArrayIntList(int, GrowthPolicy, PrimitiveArrayPool)
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class PrimitiveArrayPool {
+
+ /**
+  * The length of the smallest size class. Smaller requests are given arrays
+  * of this length.
+  */
+ public static final int MIN_POOLED_LENGTH = 16;
+
+ private static final int MIN_SHIFT = 4;
+
+ private static final int BOOLEAN = 0;
+ private static final int BYTE = 1;
+ private static final int CHAR = 2;
+ private static final int SHORT = 3;
+ private static final int INT = 4;
+ private static final int LONG = 5;
+ private static final int FLOAT = 6;
+ private static final int DOUBLE = 7;
+ private static final int TYPES = 8;
+
+ /** The log2 of the element size in bytes of each type. */
+ private static final int[] BYTE_SHIFTS = { 0, 0, 1, 1, 2, 3, 2, 3 };
+
+ private static final PrimitiveArrayPool DEFAULT = new PrimitiveArrayPool();
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Constructs a pool of arrays of up to 2<sup>16</sup> elements, keeping up
+  * to 4 arrays per size class and type, and at most 1 MiB in all, on each
+  * thread, and up to 16 arrays per size class and type, and at most 16 MiB
+  * in all, in the shared pool.
+  */
+ public PrimitiveArrayPool() {
+  this(1 << 16, 4, 16, 1L << 20, 1L << 24);
+ }
+
+ /**
+  * Constructs a pool with the given limits on the number of arrays kept,
+  * and no limit on their total size.
+  *
+  * @param maxPooledLength the length of the largest arrays to pool, rounded
+  * up to a power of two; longer arrays are allocated on demand and dropped
+  * on release
+  * @param threadLocalArrays the number of arrays of each size class and type
+  * kept by each thread
+  * @param sharedArrays the number of arrays of each size class and type kept
+  * in the pool shared by all threads
+  * @throws IllegalArgumentException if <i>maxPooledLength</i> is less than
+  * {@link #MIN_POOLED_LENGTH} or more than 2<sup>30</sup>, or either count is
+  * negative
+  */
+ public PrimitiveArrayPool(int maxPooledLength, int threadLocalArrays,
+  int sharedArrays) {
+  this(maxPooledLength, threadLocalArrays, sharedArrays, Long.MAX_VALUE,
+   Long.MAX_VALUE);
+ }
+
+ /**
+  * Constructs a pool with the given limits.
+  *
+  * @param maxPooledLength the length of the largest arrays to pool, rounded
+  * up to a power of two; longer arrays are allocated on demand and dropped
+  * on release
+  * @param threadLocalArrays the number of arrays of each size class and type
+  * kept by each thread
+  * @param sharedArrays the number of arrays of each size class and type kept
+  * in the pool shared by all threads
+  * @param threadLocalBytes the total size in bytes of the arrays kept by
+  * each thread
+  * @param sharedBytes the total size in bytes of the arrays kept in the pool
+  * shared by all threads
+  * @throws IllegalArgumentException if <i>maxPooledLength</i> is less than
+  * {@link #MIN_POOLED_LENGTH} or more than 2<sup>30</sup>, or any count or
+  * size is negative
+  */
+ public PrimitiveArrayPool(int maxPooledLength, int threadLocalArrays,
+  int sharedArrays, long threadLocalBytes, long sharedBytes) {
+  if (maxPooledLength < MIN_POOLED_LENGTH || maxPooledLength > 1 << 30) {
+   throw new IllegalArgumentException("length " + maxPooledLength);
+  }
+  if (threadLocalArrays < 0) {
+   throw new IllegalArgumentException("count " + threadLocalArrays);
+  }
+  if (sharedArrays < 0) {
+   throw new IllegalArgumentException("count " + sharedArrays);
+  }
+  if (threadLocalBytes < 0) {
+   throw new IllegalArgumentException("bytes " + threadLocalBytes);
+  }
+  if (sharedBytes < 0) {
+   throw new IllegalArgumentException("bytes " + sharedBytes);
+  }
+  _classes = sizeClass(maxPooledLength) + 1;
+  _threadLocalArrays = threadLocalArrays;
+  _threadLocalBytes = threadLocalBytes;
+  _sharedBytes = sharedBytes;
+  _shared = new Stack[TYPES * _classes];
+  for (int i = 0; i < _shared.length; i++) {
+   _shared[i] = new Stack(sharedArrays);
+  }
+  _local = ThreadLocal.withInitial(() -> new Local(TYPES * _classes,
+   _threadLocalArrays));
+ }
+
+ /**
+  * Returns a pool with the default limits shared by the whole virtual
+  * machine.
+  *
+  * @return the default pool
+  */
+ public static PrimitiveArrayPool getDefault() {
+  return DEFAULT;
+ }
+
+ // borrow and release
+ //-------------------------------------------------------------------------
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>boolean</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public boolean[] borrowBooleans(int minLength) {
+  Object array = borrow(BOOLEAN, minLength);
+  return array != null ? (boolean[]) array : new boolean[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(boolean[] array) {
+  if (array != null) {
+   release(BOOLEAN, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>byte</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public byte[] borrowBytes(int minLength) {
+  Object array = borrow(BYTE, minLength);
+  return array != null ? (byte[]) array : new byte[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(byte[] array) {
+  if (array != null) {
+   release(BYTE, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>char</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public char[] borrowChars(int minLength) {
+  Object array = borrow(CHAR, minLength);
+  return array != null ? (char[]) array : new char[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(char[] array) {
+  if (array != null) {
+   release(CHAR, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>short</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public short[] borrowShorts(int minLength) {
+  Object array = borrow(SHORT, minLength);
+  return array != null ? (short[]) array : new short[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(short[] array) {
+  if (array != null) {
+   release(SHORT, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>int</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public int[] borrowInts(int minLength) {
+  Object array = borrow(INT, minLength);
+  return array != null ? (int[]) array : new int[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(int[] array) {
+  if (array != null) {
+   release(INT, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>long</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public long[] borrowLongs(int minLength) {
+  Object array = borrow(LONG, minLength);
+  return array != null ? (long[]) array : new long[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(long[] array) {
+  if (array != null) {
+   release(LONG, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>float</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public float[] borrowFloats(int minLength) {
+  Object array = borrow(FLOAT, minLength);
+  return array != null ? (float[]) array : new float[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(float[] array) {
+  if (array != null) {
+   release(FLOAT, array, array.length);
+  }
+ }
+
+ /**
+  * Borrows an array of at least <i>minLength</i> <code>double</code>s.
+  *
+  * @param minLength the smallest acceptable length
+  * @return an array of at least <i>minLength</i> elements, with undefined
+  * contents
+  * @throws IllegalArgumentException if <i>minLength</i> is negative
+  */
+ public double[] borrowDoubles(int minLength) {
+  Object array = borrow(DOUBLE, minLength);
+  return array != null ? (double[]) array : new double[lengthFor(minLength)];
+ }
+
+ /**
+  * Returns an array to me. The caller must not use it afterwards.
+  *
+  * @param array the array to return, or <code>null</code> to do nothing
+  */
+ public void release(double[] array) {
+  if (array != null) {
+   release(DOUBLE, array, array.length);
+  }
+ }
+
+ // metrics
+ //-------------------------------------------------------------------------
+ /**
+  * Returns the number of arrays borrowed from me.
+  *
+  * @return the number of borrows
+  */
+ public long getBorrowCount() {
+  return _borrows.sum();
+ }
+
+ /**
+  * Returns the number of borrows served from the borrowing thread's own
+  * arrays.
+  *
+  * @return the number of thread-local hits
+  */
+ public long getThreadLocalHitCount() {
+  return _localHits.sum();
+ }
+
+ /**
+  * Returns the number of borrows served from the shared pool.
+  *
+  * @return the number of shared hits
+  */
+ public long getSharedHitCount() {
+  return _sharedHits.sum();
+ }
+
+ /**
+  * Returns the number of borrows that had to allocate a new array.
+  *
+  * @return the number of misses
+  */
+ public long getMissCount() {
+  return _borrows.sum() - _localHits.sum() - _sharedHits.sum();
+ }
+
+ /**
+  * Returns the number of arrays released to me, including those I dropped.
+  *
+  * @return the number of releases
+  */
+ public long getReleaseCount() {
+  return _releases.sum();
+ }
+
+ /**
+  * Returns the number of released arrays I dropped, because their length is
+  * not a size class or the pools for their size class were full.
+  *
+  * @return the number of dropped arrays
+  */
+ public long getDiscardCount() {
+  return _discards.sum();
+ }
+
+ /**
+  * Returns the fraction of borrows served without allocating, or
+  * <code>0</code> if nothing has been borrowed.
+  *
+  * @return the hit rate, between <code>0</code> and <code>1</code>
+  */
+ public double getHitRate() {
+  long borrows = _borrows.sum();
+  if (borrows == 0) {
+   return 0;
+  }
+  return (double) (_localHits.sum() + _sharedHits.sum()) / borrows;
+ }
+
+ @Override
+ public String toString() {
+  return "PrimitiveArrayPool[borrows=" + getBorrowCount() + ", localHits="
+   + getThreadLocalHitCount() + ", sharedHits=" + getSharedHitCount()
+   + ", releases=" + getReleaseCount() + ", discards=" + getDiscardCount()
+   + "]";
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ /**
+  * Takes an array of type <i>type</i> and at least <i>minLength</i>
+  * elements from the pools, or returns <code>null</code> if there is none.
+  */
+ private Object borrow(int type, int minLength) {
+  if (minLength < 0) {
+   throw new IllegalArgumentException("length " + minLength);
+  }
+  _borrows.increment();
+  int sizeClass = sizeClass(minLength);
+  if (sizeClass >= _classes) {
+   return null;
+  }
+  int slot = type * _classes + sizeClass;
+  long bytes = bytes(type, sizeClass);
+  Local local = _local.get();
+  Object array = local._stacks[slot].pop();
+  if (array != null) {
+   local._bytes -= bytes;
+   _localHits.increment();
+   return array;
+  }
+  Stack shared = _shared[slot];
+  synchronized (shared) {
+   array = shared.pop();
+  }
+  if (array != null) {
+   _sharedBytesUsed.addAndGet(-bytes);
+   _sharedHits.increment();
+  }
+  return array;
+ }
+
+ private void release(int type, Object array, int length) {
+  _releases.increment();
+  int sizeClass = sizeClass(length);
+  if (sizeClass >= _classes || length != lengthFor(length)) {
+   _discards.increment();
+   return;
+  }
+  int slot = type * _classes + sizeClass;
+  long bytes = bytes(type, sizeClass);
+  Local local = _local.get();
+  if (local._bytes <= _threadLocalBytes - bytes
+   && local._stacks[slot].push(array)) {
+   local._bytes += bytes;
+   return;
+  }
+  boolean pooled = false;
+  if (_sharedBytesUsed.addAndGet(bytes) <= _sharedBytes) {
+   Stack shared = _shared[slot];
+   synchronized (shared) {
+    pooled = shared.push(array);
+   }
+  }
+  if (!pooled) {
+   _sharedBytesUsed.addAndGet(-bytes);
+   _discards.increment();
+  }
+ }
+
+ /**
+  * Returns the size in bytes of an array of type <i>type</i> in size class
+  * <i>sizeClass</i>.
+  */
+ private static long bytes(int type, int sizeClass) {
+  return (long) MIN_POOLED_LENGTH << sizeClass << BYTE_SHIFTS[type];
+ }
+
+ /**
+  * Returns the length of the arrays handed out for <i>minLength</i>: the
+  * length of its size class, or <i>minLength</i> itself if that is larger
+  * than my largest size class.
+  */
+ private int lengthFor(int minLength) {
+  int sizeClass = sizeClass(minLength);
+  return sizeClass < _classes ? MIN_POOLED_LENGTH << sizeClass : minLength;
+ }
+
+ /**
+  * Returns the index of the smallest size class holding <i>length</i>
+  * elements.
+  */
+ private static int sizeClass(int length) {
+  if (length <= MIN_POOLED_LENGTH) {
+   return 0;
+  }
+  return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private final int _classes;
+ private final int _threadLocalArrays;
+ private final long _threadLocalBytes;
+ private final long _sharedBytes;
+ private final Stack[] _shared;
+ private final AtomicLong _sharedBytesUsed = new AtomicLong();
+ private final ThreadLocal<Local> _local;
+ private final LongAdder _borrows = new LongAdder();
+ private final LongAdder _localHits = new LongAdder();
+ private final LongAdder _sharedHits = new LongAdder();
+ private final LongAdder _releases = new LongAdder();
+ private final LongAdder _discards = new LongAdder();
+
+ // inner classes
+ //-------------------------------------------------------------------------
+ /**
+  * A bounded stack of arrays. Not thread safe.
+  */
+ private static final class Stack {
+
+  Stack(int capacity) {
+   _arrays = new Object[capacity];
+  }
+
+  Object pop() {
+   if (_count == 0) {
+    return null;
+   }
+   Object array = _arrays[--_count];
+   _arrays[_count] = null;
+   return array;
+  }
+
+  boolean push(Object array) {
+   if (_count == _arrays.length) {
+    return false;
+   }
+   _arrays[_count++] = array;
+   return true;
+  }
+
+  private final Object[] _arrays;
+  private int _count = 0;
+ }
+
+ /**
+  * The arrays kept by one thread, one stack per size class and type, and
+  * their total size in bytes.
+  */
+ private static final class Local {
+
+  Local(int slots, int capacity) {
+   _stacks = new Stack[slots];
+   for (int i = 0; i < slots; i++) {
+    _stacks[i] = new Stack(capacity);
+   }
+  }
+
+  private final Stack[] _stacks;
+  private long _bytes = 0;
+ }
+}
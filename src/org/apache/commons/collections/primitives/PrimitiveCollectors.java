@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Collectors that gather stream elements into the array backed lists of this
+ * package. The methods taking a primitive stream never box; for parallel
+ * streams each thread fills its own list and the partial lists are joined with
+ * a single array copy each.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class PrimitiveCollectors {
+
+ private PrimitiveCollectors() {
+ }
+
+ /**
+  * Collects the elements of the given stream into a new {@link ArrayIntList},
+  * in encounter order.
+  *
+  * @param stream the stream to collect
+  * @return a list holding the elements of <i>stream</i>
+  */
+ public static ArrayIntList toArrayIntList(IntStream stream) {
+  return stream.collect(ArrayIntList::new, ArrayIntList::add,
+   ArrayIntList::addAll);
+ }
+
+ /**
+  * Collects the elements of the given stream into a new {@link ArrayLongList},
+  * in encounter order.
+  *
+  * @param stream the stream to collect
+  * @return a list holding the elements of <i>stream</i>
+  */
+ public static ArrayLongList toArrayLongList(LongStream stream) {
+  return stream.collect(ArrayLongList::new, ArrayLongList::add,
+   ArrayLongList::addAll);
+ }
+
+ /**
+  * Collects the elements of the given stream into a new
+  * {@link ArrayDoubleList}, in encounter order.
+  *
+  * @param stream the stream to collect
+  * @return a list holding the elements of <i>stream</i>
+  */
+ public static ArrayDoubleList toArrayDoubleList(DoubleStream stream) {
+  return stream.collect(ArrayDoubleList::new, ArrayDoubleList::add,
+   ArrayDoubleList::addAll);
+ }
+
+ /**
+  * Collects the elements of the given stream into a new {@link ArrayFloatList},
+  * narrowing each element to <code>float</code>, in encounter order.
+  *
+  * @param stream the stream to collect
+  * @return a list holding the elements of <i>stream</i>
+  */
+ public static ArrayFloatList toArrayFloatList(DoubleStream stream) {
+  return stream.collect(ArrayFloatList::new, ArrayFloatList::add,
+   ArrayFloatList::addAll);
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>boolean</code> values
+  * into a new {@link ArrayBooleanList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayBooleanList</code>
+  */
+ public static Collector<Boolean, ?, ArrayBooleanList> toArrayBooleanList() {
+  return Collector.of(ArrayBooleanList::new, ArrayBooleanList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>byte</code> values into
+  * a new {@link ArrayByteList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayByteList</code>
+  */
+ public static Collector<Byte, ?, ArrayByteList> toArrayByteList() {
+  return Collector.of(ArrayByteList::new, ArrayByteList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>char</code> values into
+  * a new {@link ArrayCharList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayCharList</code>
+  */
+ public static Collector<Character, ?, ArrayCharList> toArrayCharList() {
+  return Collector.of(ArrayCharList::new, ArrayCharList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>short</code> values
+  * into a new {@link ArrayShortList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayShortList</code>
+  */
+ public static Collector<Short, ?, ArrayShortList> toArrayShortList() {
+  return Collector.of(ArrayShortList::new, ArrayShortList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>int</code> values into
+  * a new {@link ArrayIntList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayIntList</code>
+  */
+ public static Collector<Integer, ?, ArrayIntList> toArrayIntList() {
+  return Collector.of(ArrayIntList::new, ArrayIntList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>long</code> values into
+  * a new {@link ArrayLongList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayLongList</code>
+  */
+ public static Collector<Long, ?, ArrayLongList> toArrayLongList() {
+  return Collector.of(ArrayLongList::new, ArrayLongList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>float</code> values
+  * into a new {@link ArrayFloatList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayFloatList</code>
+  */
+ public static Collector<Float, ?, ArrayFloatList> toArrayFloatList() {
+  return Collector.of(ArrayFloatList::new, ArrayFloatList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+
+ /**
+  * Returns a {@link Collector} that gathers boxed <code>double</code> values
+  * into a new {@link ArrayDoubleList}, in encounter order.
+  *
+  * @return a collector building an <code>ArrayDoubleList</code>
+  */
+ public static Collector<Double, ?, ArrayDoubleList> toArrayDoubleList() {
+  return Collector.of(ArrayDoubleList::new, ArrayDoubleList::add,
+   (left, right) -> {
+    left.addAll(right);
+    return left;
+   });
+ }
+}
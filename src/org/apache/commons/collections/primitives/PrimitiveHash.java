@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+/**
+ * Hashing and sizing helpers shared by the open addressing hash tables in this
+ * package. Tables are always a power of two in length so that a slot can be
+ * found by masking a mixed hash code.
+ *
+ * @version $Revision$ $Date$
+ */
+final class PrimitiveHash {
+
+ /**
+  * The load factor used when none is given.
+  */
+ static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+ /**
+  * The number of elements a table is sized for when none is given.
+  */
+ static final int DEFAULT_EXPECTED_SIZE = 8;
+
+ /**
+  * The largest table length.
+  */
+ static final int MAXIMUM_CAPACITY = 1 << 30;
+
+ private static final int INT_PHI = 0x9E3779B9;
+ private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+ private PrimitiveHash() {
+ }
+
+ /**
+  * Spreads the bits of <i>x</i> so that sequential keys do not cluster in
+  * the low bits used to pick a slot.
+  *
+  * @param x the value to mix
+  * @return the mixed hash code
+  */
+ static int mix(int x) {
+  int h = x * INT_PHI;
+  return h ^ (h >>> 16);
+ }
+
+ /**
+  * Spreads the bits of <i>x</i> so that sequential keys do not cluster in
+  * the low bits used to pick a slot.
+  *
+  * @param x the value to mix
+  * @return the mixed hash code
+  */
+ static int mix(long x) {
+  long h = x * LONG_PHI;
+  h ^= h >>> 32;
+  return (int) (h ^ (h >>> 16));
+ }
+
+ /**
+  * Returns the table length needed to hold <i>expectedSize</i> elements
+  * without exceeding <i>loadFactor</i>.
+  *
+  * @param expectedSize the number of elements the table should hold
+  * @param loadFactor the maximum fill ratio of the table
+  * @return a power of two table length
+  * @throws IllegalArgumentException when the table would be too large
+  */
+ static int tableSize(int expectedSize, float loadFactor) {
+  long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+  if (needed > MAXIMUM_CAPACITY) {
+   throw new IllegalArgumentException("too large: " + expectedSize
+    + " elements at load factor " + loadFactor);
+  }
+  int n = 2;
+  while (n < needed) {
+   n <<= 1;
+  }
+  return n;
+ }
+
+ /**
+  * Returns the number of occupied slots a table of the given length may hold
+  * before it is resized. At least one slot is always left free so that probe
+  * sequences terminate.
+  *
+  * @param tableSize the table length
+  * @param loadFactor the maximum fill ratio of the table
+  * @return the resize threshold
+  */
+ static int maxFill(int tableSize, float loadFactor) {
+  return Math.min((int) Math.ceil(tableSize * (double) loadFactor),
+   tableSize - 1);
+ }
+
+ /**
+  * Checks that a table may fill one more slot. Tables double in length when
+  * they pass their resize threshold, so this only fails for a table that is
+  * already {@link #MAXIMUM_CAPACITY} slots long and has reached its
+  * threshold, which doubling again would overflow.
+  *
+  * @param occupied the number of occupied slots
+  * @param maxFill the resize threshold of the table
+  * @param tableSize the table length
+  * @throws IllegalStateException when the table cannot take another key
+  */
+ static void checkRoom(int occupied, int maxFill, int tableSize) {
+  if (occupied >= maxFill && tableSize >= MAXIMUM_CAPACITY) {
+   throw new IllegalStateException("hash table cannot grow past "
+    + tableSize + " slots, which are full at " + maxFill + " keys");
+  }
+ }
+
+ /**
+  * Checks that a load factor lies strictly between zero and one.
+  *
+  * @param loadFactor the load factor to check
+  * @throws IllegalArgumentException when <i>loadFactor</i> is out of range
+  */
+ static void checkLoadFactor(float loadFactor) {
+  if (!(loadFactor > 0f && loadFactor < 1f)) {
+   throw new IllegalArgumentException("load factor " + loadFactor);
+  }
+ }
+
+ /**
+  * Checks that an expected size is not negative.
+  *
+  * @param expectedSize the expected size to check
+  * @throws IllegalArgumentException when <i>expectedSize</i> is negative
+  */
+ static void checkExpectedSize(int expectedSize) {
+  if (expectedSize < 0) {
+   throw new IllegalArgumentException("expected size " + expectedSize);
+  }
+ }
+}
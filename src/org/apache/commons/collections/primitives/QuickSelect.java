@@ -0,0 +1,515 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.Arrays;
+
+/**
+ * Selection of the element of a given rank in a primitive array, in place
+ * and in linear expected time: the <code>nth_element</code> of C++. This is
+ * an <i>introselect</i>: a quickselect with median-of-three pivots that,
+ * should it partition badly too many times, sorts what remains of the range
+ * instead, so the worst case is that of {@link Arrays#sort(int[], int, int)
+ * Arrays.sort} rather than quadratic.
+ * <p>
+ * <code>float</code> and <code>double</code> elements are ordered as by
+ * {@link Float#compare Float.compare} and
+ * {@link Double#compare Double.compare}, as <code>Arrays.sort</code> orders
+ * them.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class QuickSelect {
+
+ /**
+  * Ranges no longer than this are sorted.
+  */
+ private static final int SORT_THRESHOLD = 16;
+
+ private QuickSelect() {
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, with
+  * no greater element before it and no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static byte select(byte[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   byte pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Byte.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Byte.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     byte tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static byte medianOfThree(byte a, byte b, byte c) {
+  if (Byte.compare(a, b) > 0) {
+   byte tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Byte.compare(b, c) <= 0) {
+   return b;
+  }
+  return Byte.compare(a, c) >= 0 ? a : c;
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, with
+  * no greater element before it and no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static char select(char[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   char pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Character.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Character.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     char tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static char medianOfThree(char a, char b, char c) {
+  if (Character.compare(a, b) > 0) {
+   char tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Character.compare(b, c) <= 0) {
+   return b;
+  }
+  return Character.compare(a, c) >= 0 ? a : c;
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, with
+  * no greater element before it and no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static short select(short[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   short pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Short.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Short.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     short tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static short medianOfThree(short a, short b, short c) {
+  if (Short.compare(a, b) > 0) {
+   short tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Short.compare(b, c) <= 0) {
+   return b;
+  }
+  return Short.compare(a, c) >= 0 ? a : c;
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, with
+  * no greater element before it and no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static int select(int[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   int pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Integer.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Integer.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     int tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static int medianOfThree(int a, int b, int c) {
+  if (Integer.compare(a, b) > 0) {
+   int tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Integer.compare(b, c) <= 0) {
+   return b;
+  }
+  return Integer.compare(a, c) >= 0 ? a : c;
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, with
+  * no greater element before it and no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static long select(long[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   long pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Long.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Long.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     long tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static long medianOfThree(long a, long b, long c) {
+  if (Long.compare(a, b) > 0) {
+   long tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Long.compare(b, c) <= 0) {
+   return b;
+  }
+  return Long.compare(a, c) >= 0 ? a : c;
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, as by
+  * {@link Float#compare Float.compare}, with no greater element before it and
+  * no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static float select(float[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   float pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Float.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Float.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     float tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static float medianOfThree(float a, float b, float c) {
+  if (Float.compare(a, b) > 0) {
+   float tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Float.compare(b, c) <= 0) {
+   return b;
+  }
+  return Float.compare(a, c) >= 0 ? a : c;
+ }
+
+ /**
+  * Rearranges the given range of <i>array</i> in place so that the element at
+  * <i>index</i> is the one that would be there if the range were sorted, as by
+  * {@link Double#compare Double.compare}, with no greater element before it and
+  * no lesser element after it.
+  *
+  * @param array the array to rearrange
+  * @param fromIndex the index of the first element of the range
+  * @param toIndex one past the index of the last element of the range
+  * @param index the index of the element to select
+  * @return the element now at <i>index</i>
+  * @throws IndexOutOfBoundsException if the range is not within
+  * <i>array</i>, or <i>index</i> is not within the range
+  */
+ public static double select(double[] array, int fromIndex, int toIndex,
+  int index) {
+  checkRange(array.length, fromIndex, toIndex, index);
+  int depth = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+  while (toIndex - fromIndex > SORT_THRESHOLD) {
+   if (depth-- == 0) {
+    break;
+   }
+   int mid = (fromIndex + toIndex) >>> 1;
+   double pivot =
+    medianOfThree(array[fromIndex], array[mid], array[toIndex - 1]);
+   int i = fromIndex;
+   int j = toIndex - 1;
+   while (i <= j) {
+    while (Double.compare(array[i], pivot) < 0) {
+     i++;
+    }
+    while (Double.compare(array[j], pivot) > 0) {
+     j--;
+    }
+    if (i <= j) {
+     double tmp = array[i];
+     array[i++] = array[j];
+     array[j--] = tmp;
+    }
+   }
+   // [fromIndex, j] holds no greater, [i, toIndex) no lesser, and any
+   // elements between equal the pivot
+   if (index <= j) {
+    toIndex = j + 1;
+   } else if (index >= i) {
+    fromIndex = i;
+   } else {
+    return array[index];
+   }
+  }
+  Arrays.sort(array, fromIndex, toIndex);
+  return array[index];
+ }
+
+ private static double medianOfThree(double a, double b, double c) {
+  if (Double.compare(a, b) > 0) {
+   double tmp = a;
+   a = b;
+   b = tmp;
+  }
+  if (Double.compare(b, c) <= 0) {
+   return b;
+  }
+  return Double.compare(a, c) >= 0 ? a : c;
+ }
+
+ private static void checkRange(int length, int fromIndex, int toIndex,
+  int index) {
+  if (fromIndex < 0 || fromIndex > toIndex || toIndex > length) {
+   throw new IndexOutOfBoundsException("Range [" + fromIndex + ", "
+    + toIndex + ") out of bounds for length " + length);
+  }
+  if (index < fromIndex || index >= toIndex) {
+   throw new IndexOutOfBoundsException("Index " + index + " not in ["
+    + fromIndex + ", " + toIndex + ")");
+  }
+ }
+}
@@ -0,0 +1,503 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * In-place most significant digit first radix sorts ("American flag sort")
+ * of <code>int</code>, <code>long</code>, <code>float</code> and
+ * <code>double</code> arrays. Each pass distributes a range into 256
+ * buckets by one byte of the key, permuting elements in place, so no
+ * temporary array is needed; buckets too small to benefit from another pass
+ * are finished with {@link Arrays#sort(int[], int, int) Arrays.sort}.
+ * <p>
+ * <code>float</code> and <code>double</code> elements are ordered by their
+ * IEEE 754 bits mapped to integers that compare like
+ * {@link Float#compare Float.compare} and
+ * {@link Double#compare Double.compare}: <code>-0.0</code> sorts before
+ * <code>0.0</code> and NaNs sort last. The results are the same as those of
+ * <code>Arrays.sort</code>.
+ * <p>
+ * <code>byte</code>, <code>short</code> and <code>char</code> arrays need no
+ * help here: <code>Arrays.sort</code> already counting sorts large ranges of
+ * them.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class RadixSort {
+
+ /**
+  * The number of buckets of each pass.
+  */
+ private static final int RADIX = 256;
+
+ /**
+  * Ranges shorter than this are sorted by comparison.
+  */
+ private static final int THRESHOLD = 1024;
+
+ /**
+  * Ranges shorter than this are not sorted in parallel.
+  */
+ private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+ private RadixSort() {
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> into ascending order.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void sort(int[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < THRESHOLD) {
+   Arrays.sort(array, fromIndex, toIndex);
+  } else {
+   radixSort(array, fromIndex, toIndex, 24);
+  }
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> like
+  * {@link #sort(int[], int, int) sort}, sorting the buckets of the first pass
+  * in parallel in the common {@link java.util.concurrent.ForkJoinPool}.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void parallelSort(int[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < PARALLEL_THRESHOLD) {
+   sort(array, fromIndex, toIndex);
+   return;
+  }
+  int[] bounds = distribute(array, fromIndex, toIndex, 24);
+  IntStream.range(0, RADIX).parallel().forEach(
+   b -> sortBucket(array, bounds[b], bounds[b + 1], 24 - 8));
+ }
+
+ /**
+  * Sorts the range on the digit at <i>shift</i>, then each bucket on the
+  * digits below it.
+  */
+ private static void radixSort(int[] array, int from, int to, int shift) {
+  int[] bounds = distribute(array, from, to, shift);
+  if (shift > 0) {
+   for (int b = 0; b < RADIX; b++) {
+    sortBucket(array, bounds[b], bounds[b + 1], shift - 8);
+   }
+  }
+ }
+
+ private static void sortBucket(int[] array, int from, int to, int shift) {
+  if (to - from < THRESHOLD) {
+   if (to - from > 1) {
+    Arrays.sort(array, from, to);
+   }
+  } else if (shift >= 0) {
+   radixSort(array, from, to, shift);
+  }
+ }
+
+ /**
+  * Moves each element of the range, in place, to the bucket of its digit at
+  * <i>shift</i>, and returns the bounds of the <code>RADIX</code> buckets.
+  */
+ private static int[] distribute(int[] array, int from, int to, int shift) {
+  int[] bounds = new int[RADIX + 1];
+  for (int i = from; i < to; i++) {
+   bounds[digit(array[i], shift) + 1]++;
+  }
+  bounds[0] = from;
+  for (int b = 0; b < RADIX; b++) {
+   bounds[b + 1] += bounds[b];
+  }
+  int[] next = Arrays.copyOf(bounds, RADIX);
+  for (int b = 0; b < RADIX; b++) {
+   int end = bounds[b + 1];
+   while (next[b] < end) {
+    // carry elements around the cycle that starts at next[b]
+    int value = array[next[b]];
+    int d = digit(value, shift);
+    while (d != b) {
+     int displaced = array[next[d]];
+     array[next[d]++] = value;
+     value = displaced;
+     d = digit(value, shift);
+    }
+    array[next[b]++] = value;
+   }
+  }
+  return bounds;
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> into ascending order.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void sort(long[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < THRESHOLD) {
+   Arrays.sort(array, fromIndex, toIndex);
+  } else {
+   radixSort(array, fromIndex, toIndex, 56);
+  }
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> like
+  * {@link #sort(long[], int, int) sort}, sorting the buckets of the first pass
+  * in parallel in the common {@link java.util.concurrent.ForkJoinPool}.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void parallelSort(long[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < PARALLEL_THRESHOLD) {
+   sort(array, fromIndex, toIndex);
+   return;
+  }
+  int[] bounds = distribute(array, fromIndex, toIndex, 56);
+  IntStream.range(0, RADIX).parallel().forEach(
+   b -> sortBucket(array, bounds[b], bounds[b + 1], 56 - 8));
+ }
+
+ /**
+  * Sorts the range on the digit at <i>shift</i>, then each bucket on the
+  * digits below it.
+  */
+ private static void radixSort(long[] array, int from, int to, int shift) {
+  int[] bounds = distribute(array, from, to, shift);
+  if (shift > 0) {
+   for (int b = 0; b < RADIX; b++) {
+    sortBucket(array, bounds[b], bounds[b + 1], shift - 8);
+   }
+  }
+ }
+
+ private static void sortBucket(long[] array, int from, int to, int shift) {
+  if (to - from < THRESHOLD) {
+   if (to - from > 1) {
+    Arrays.sort(array, from, to);
+   }
+  } else if (shift >= 0) {
+   radixSort(array, from, to, shift);
+  }
+ }
+
+ /**
+  * Moves each element of the range, in place, to the bucket of its digit at
+  * <i>shift</i>, and returns the bounds of the <code>RADIX</code> buckets.
+  */
+ private static int[] distribute(long[] array, int from, int to, int shift) {
+  int[] bounds = new int[RADIX + 1];
+  for (int i = from; i < to; i++) {
+   bounds[digit(array[i], shift) + 1]++;
+  }
+  bounds[0] = from;
+  for (int b = 0; b < RADIX; b++) {
+   bounds[b + 1] += bounds[b];
+  }
+  int[] next = Arrays.copyOf(bounds, RADIX);
+  for (int b = 0; b < RADIX; b++) {
+   int end = bounds[b + 1];
+   while (next[b] < end) {
+    // carry elements around the cycle that starts at next[b]
+    long value = array[next[b]];
+    int d = digit(value, shift);
+    while (d != b) {
+     long displaced = array[next[d]];
+     array[next[d]++] = value;
+     value = displaced;
+     d = digit(value, shift);
+    }
+    array[next[b]++] = value;
+   }
+  }
+  return bounds;
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> into ascending order, as by
+  * {@link Float#compare Float.compare}.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void sort(float[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < THRESHOLD) {
+   Arrays.sort(array, fromIndex, toIndex);
+  } else {
+   radixSort(array, fromIndex, toIndex, 24);
+  }
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> like
+  * {@link #sort(float[], int, int) sort}, sorting the buckets of the first pass
+  * in parallel in the common {@link java.util.concurrent.ForkJoinPool}.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void parallelSort(float[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < PARALLEL_THRESHOLD) {
+   sort(array, fromIndex, toIndex);
+   return;
+  }
+  int[] bounds = distribute(array, fromIndex, toIndex, 24);
+  IntStream.range(0, RADIX).parallel().forEach(
+   b -> sortBucket(array, bounds[b], bounds[b + 1], 24 - 8));
+ }
+
+ /**
+  * Sorts the range on the digit at <i>shift</i>, then each bucket on the
+  * digits below it.
+  */
+ private static void radixSort(float[] array, int from, int to, int shift) {
+  int[] bounds = distribute(array, from, to, shift);
+  if (shift > 0) {
+   for (int b = 0; b < RADIX; b++) {
+    sortBucket(array, bounds[b], bounds[b + 1], shift - 8);
+   }
+  }
+ }
+
+ private static void sortBucket(float[] array, int from, int to, int shift) {
+  if (to - from < THRESHOLD) {
+   if (to - from > 1) {
+    Arrays.sort(array, from, to);
+   }
+  } else if (shift >= 0) {
+   radixSort(array, from, to, shift);
+  }
+ }
+
+ /**
+  * Moves each element of the range, in place, to the bucket of its digit at
+  * <i>shift</i>, and returns the bounds of the <code>RADIX</code> buckets.
+  */
+ private static int[] distribute(float[] array, int from, int to, int shift) {
+  int[] bounds = new int[RADIX + 1];
+  for (int i = from; i < to; i++) {
+   bounds[digit(key(array[i]), shift) + 1]++;
+  }
+  bounds[0] = from;
+  for (int b = 0; b < RADIX; b++) {
+   bounds[b + 1] += bounds[b];
+  }
+  int[] next = Arrays.copyOf(bounds, RADIX);
+  for (int b = 0; b < RADIX; b++) {
+   int end = bounds[b + 1];
+   while (next[b] < end) {
+    // carry elements around the cycle that starts at next[b]
+    float value = array[next[b]];
+    int d = digit(key(value), shift);
+    while (d != b) {
+     float displaced = array[next[d]];
+     array[next[d]++] = value;
+     value = displaced;
+     d = digit(key(value), shift);
+    }
+    array[next[b]++] = value;
+   }
+  }
+  return bounds;
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> into ascending order, as by
+  * {@link Double#compare Double.compare}.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void sort(double[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < THRESHOLD) {
+   Arrays.sort(array, fromIndex, toIndex);
+  } else {
+   radixSort(array, fromIndex, toIndex, 56);
+  }
+ }
+
+ /**
+  * Sorts the given range of <i>array</i> like
+  * {@link #sort(double[], int, int) sort}, sorting the buckets of the first
+  * pass in parallel in the common {@link java.util.concurrent.ForkJoinPool}.
+  *
+  * @param array the array to sort
+  * @param fromIndex the index of the first element to sort
+  * @param toIndex one past the index of the last element to sort
+  * @throws ArrayIndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than the length of <i>array</i>
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public static void parallelSort(double[] array, int fromIndex, int toIndex) {
+  checkRange(array.length, fromIndex, toIndex);
+  if (toIndex - fromIndex < PARALLEL_THRESHOLD) {
+   sort(array, fromIndex, toIndex);
+   return;
+  }
+  int[] bounds = distribute(array, fromIndex, toIndex, 56);
+  IntStream.range(0, RADIX).parallel().forEach(
+   b -> sortBucket(array, bounds[b], bounds[b + 1], 56 - 8));
+ }
+
+ /**
+  * Sorts the range on the digit at <i>shift</i>, then each bucket on the
+  * digits below it.
+  */
+ private static void radixSort(double[] array, int from, int to, int shift) {
+  int[] bounds = distribute(array, from, to, shift);
+  if (shift > 0) {
+   for (int b = 0; b < RADIX; b++) {
+    sortBucket(array, bounds[b], bounds[b + 1], shift - 8);
+   }
+  }
+ }
+
+ private static void sortBucket(double[] array, int from, int to, int shift) {
+  if (to - from < THRESHOLD) {
+   if (to - from > 1) {
+    Arrays.sort(array, from, to);
+   }
+  } else if (shift >= 0) {
+   radixSort(array, from, to, shift);
+  }
+ }
+
+ /**
+  * Moves each element of the range, in place, to the bucket of its digit at
+  * <i>shift</i>, and returns the bounds of the <code>RADIX</code> buckets.
+  */
+ private static int[] distribute(double[] array, int from, int to, int shift) {
+  int[] bounds = new int[RADIX + 1];
+  for (int i = from; i < to; i++) {
+   bounds[digit(key(array[i]), shift) + 1]++;
+  }
+  bounds[0] = from;
+  for (int b = 0; b < RADIX; b++) {
+   bounds[b + 1] += bounds[b];
+  }
+  int[] next = Arrays.copyOf(bounds, RADIX);
+  for (int b = 0; b < RADIX; b++) {
+   int end = bounds[b + 1];
+   while (next[b] < end) {
+    // carry elements around the cycle that starts at next[b]
+    double value = array[next[b]];
+    int d = digit(key(value), shift);
+    while (d != b) {
+     double displaced = array[next[d]];
+     array[next[d]++] = value;
+     value = displaced;
+     d = digit(key(value), shift);
+    }
+    array[next[b]++] = value;
+   }
+  }
+  return bounds;
+ }
+
+ /**
+  * Returns the bits of <i>value</i> as an <code>int</code> whose signed
+  * order is the order of {@link Float#compare Float.compare}: negative
+  * values have their magnitude bits flipped, and NaNs are collapsed.
+  */
+ private static int key(float value) {
+  int bits = Float.floatToIntBits(value);
+  return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+ }
+
+ /**
+  * Returns the bits of <i>value</i> as a <code>long</code> whose signed
+  * order is the order of {@link Double#compare Double.compare}.
+  */
+ private static long key(double value) {
+  long bits = Double.doubleToLongBits(value);
+  return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+ }
+
+ /**
+  * Returns the byte of <i>key</i> at <i>shift</i> as a bucket, flipping the
+  * sign bit of the top byte so that negative keys come first.
+  */
+ private static int digit(int key, int shift) {
+  int d = (key >>> shift) & 0xFF;
+  return shift == 24 ? d ^ 0x80 : d;
+ }
+
+ private static int digit(long key, int shift) {
+  int d = (int) (key >>> shift) & 0xFF;
+  return shift == 56 ? d ^ 0x80 : d;
+ }
+
+ private static void checkRange(int length, int fromIndex, int toIndex) {
+  if (fromIndex > toIndex) {
+   throw new IllegalArgumentException(fromIndex + " > " + toIndex);
+  } else if (fromIndex < 0 || toIndex > length) {
+   throw new ArrayIndexOutOfBoundsException("Range [" + fromIndex + ", "
+    + toIndex + ") out of bounds for length " + length);
+  }
+ }
+}
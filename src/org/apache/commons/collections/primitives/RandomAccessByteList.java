@@ -18,6 +18,7 @@ package org.apache.commons.collections.primitives;
 
 import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Abstract base class for {@link ByteList}s backed by random access structures
@@ -147,6 +148,14 @@ public abstract class RandomAccessByteList extends AbstractByteCollection
   return new RandomAccessByteSubList(this, fromIndex, toIndex);
  }
 
+ @Override
+ public void replaceAll(ByteUnaryOperator operator) {
+  Objects.requireNonNull(operator);
+  for (int i = 0, size = size(); i < size; i++) {
+   set(i, operator.applyAsByte(get(i)));
+  }
+ }
+
  @Override
  public boolean equals(Object that) {
   if (this == that) {
@@ -191,8 +200,114 @@ public abstract class RandomAccessByteList extends AbstractByteCollection
   return buf.toString();
  }
 
+ /**
+  * Returns an array containing all of my elements, in order. This
+  * implementation copies them with {@link #copyInto copyInto}, a single array
+  * copy for array backed lists.
+  *
+  * @return an array containing all my elements
+  */
+ @Override
+ public byte[] toArray() {
+  byte[] array = new byte[size()];
+  copyInto(0, array, 0, array.length);
+  return array;
+ }
+
+ /**
+  * Returns an array containing all of my elements, in order, using the given
+  * array if it is large enough. This implementation copies them with
+  * {@link #copyInto copyInto}, a single array copy for array backed lists.
+  *
+  * @param a an array that may be used to contain the elements
+  * @return an array containing all my elements
+  */
+ @Override
+ public byte[] toArray(byte[] a) {
+  int size = size();
+  if (a.length < size) {
+   return toArray();
+  }
+  copyInto(0, a, 0, size);
+  return a;
+ }
+
+ /**
+  * Copies all of my elements, in order, into the given array starting at
+  * <i>destOffset</i>. Values of <i>dest</i> outside of that range are
+  * unchanged.
+  *
+  * @param dest the array to copy into
+  * @param destOffset the index in <i>dest</i> of my first element
+  * @return <i>dest</i>
+  * @throws NullPointerException if <i>dest</i> is <code>null</code>
+  * @throws IndexOutOfBoundsException if <i>dest</i> cannot hold all my
+  * elements starting at <i>destOffset</i>
+  */
+ public byte[] toArray(byte[] dest, int destOffset) {
+  int size = size();
+  if (destOffset < 0 || destOffset > dest.length - size) {
+   throw new IndexOutOfBoundsException("Range [" + destOffset + ", "
+    + destOffset + " + " + size + ") out of bounds for length "
+    + dest.length);
+  }
+  copyInto(0, dest, destOffset, size);
+  return dest;
+ }
+
+ /**
+  * Returns a new array containing my elements from <i>fromIndex</i>,
+  * inclusive, to <i>toIndex</i>, exclusive.
+  *
+  * @param fromIndex the index of the first element to copy
+  * @param toIndex one past the index of the last element to copy
+  * @return an array containing the elements in the given range
+  * @throws IndexOutOfBoundsException if <i>fromIndex</i> is negative or
+  * <i>toIndex</i> is greater than my {@link #size size}
+  * @throws IllegalArgumentException if <i>fromIndex</i> is greater than
+  * <i>toIndex</i>
+  */
+ public byte[] copyRange(int fromIndex, int toIndex) {
+  if (fromIndex < 0 || toIndex > size()) {
+   throw new IndexOutOfBoundsException("Range [" + fromIndex + ", "
+    + toIndex + ") out of bounds for length " + size());
+  } else if (fromIndex > toIndex) {
+   throw new IllegalArgumentException(fromIndex + " > " + toIndex);
+  }
+  byte[] array = new byte[toIndex - fromIndex];
+  copyInto(fromIndex, array, 0, array.length);
+  return array;
+ }
+
  // protected utilities
  //-------------------------------------------------------------------------
+ /**
+  * Copies <i>length</i> of my elements, starting at <i>index</i>, into
+  * <i>dest</i> starting at <i>destOffset</i>. Bulk operations use this to
+  * move elements between lists. This implementation calls {@link #get} for
+  * each element; array backed subclasses override it with
+  * <code>System.arraycopy</code>.
+  *
+  * @param index the index of my first element to copy
+  * @param dest the array to copy into
+  * @param destOffset the index in <i>dest</i> of the first copied element
+  * @param length the number of elements to copy
+  * @throws IndexOutOfBoundsException if either range is out of bounds
+  */
+ protected void copyInto(int index, byte[] dest, int destOffset, int length) {
+  for (int i = 0; i < length; i++) {
+   dest[destOffset + i] = get(index + i);
+  }
+ }
+
+ /**
+  * Returns the list whose storage holds my elements: me, or for a
+  * {@link #subList sub list} the list it is a view of.
+  */
+ RandomAccessByteList backingList() {
+  return this;
+ }
+
  /**
   * Get my count of structural modifications.
   */
@@ -422,6 +537,34 @@ public abstract class RandomAccessByteList extends AbstractByteCollection
    return (index + _offset);
   }
 
+  @Override
+  public boolean addAll(int index, ByteCollection collection) {
+   checkRangeIncludingEndpoint(index);
+   _comod.assertNotComodified();
+   int length = collection.size();
+   if (!_list.addAll(toUnderlyingIndex(index), collection)) {
+    return false;
+   }
+   _limit += length;
+   _comod.resyncModCount();
+   incrModCount();
+   return true;
+  }
+
+  @Override
+  protected void copyInto(int index, byte[] dest, int destOffset, int length) {
+   if (index < 0 || length < 0 || index > size() - length) {
+    throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+     + " + " + length + ") out of bounds for length " + size());
+   }
+   _list.copyInto(toUnderlyingIndex(index), dest, destOffset, length);
+  }
+
+  @Override
+  RandomAccessByteList backingList() {
+   return _list.backingList();
+  }
+
   private int _offset = 0;
   private int _limit = 0;
   private RandomAccessByteList _list = null;
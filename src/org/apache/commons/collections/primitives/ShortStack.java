@@ -46,9 +46,7 @@ public class ShortStack {
   * @param numbas the array to add
   */
  public ShortStack(short[] numbas) {
-  for (int ii = 0; ii < numbas.length; ii++) {
-   list.add(numbas[ii]);
-  }
+  list.addAll(numbas, 0, numbas.length);
  }
 
  /**
@@ -0,0 +1,490 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An array backed {@link FloatList} that keeps its elements in ascending order,
+ * as by {@link Float#compare Float.compare}. Elements added with
+ * {@link #add(float) add} or {@link #addAll(FloatCollection) addAll} are
+ * inserted at their place in that order, after any equal elements, so
+ * {@link #contains contains}, {@link #indexOf indexOf} and the other searches
+ * are binary searches, and {@link #headList headList},
+ * {@link #tailList tailList} and {@link #subRange subRange} return views of the
+ * elements in a range of values.
+ * <p>
+ * {@link #union union}, {@link #intersection intersection} and
+ * {@link #difference difference} merge two sorted lists in linear time. A
+ * sorted list may hold duplicates, which these treat as a multiset: the
+ * result holds an element as many times as the larger, the smaller, or the
+ * difference of its counts in the two lists. On lists of distinct elements,
+ * such as posting lists, they are the usual set operations.
+ * <p>
+ * Inserting at or replacing the element at a given index could break the
+ * order, so {@link #add(int, float) add(int, float)} and
+ * {@link #set(int, float) set} are not supported. Removal is.
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public class SortedFloatList extends RandomAccessFloatList
+ implements Serializable {
+
+ static final long serialVersionUID = 1L;
+
+ private static final float[] EMPTY_DATA = new float[0];
+
+ // constructors
+ //-------------------------------------------------------------------------
+ /**
+  * Construct an empty list with the default capacity.
+  */
+ public SortedFloatList() {
+  this(8);
+ }
+
+ /**
+  * Construct an empty list with the given capacity.
+  *
+  * @param initialCapacity
+  * @throws IllegalArgumentException when <i>initialCapacity</i> is negative
+  */
+ public SortedFloatList(int initialCapacity) {
+  if (initialCapacity < 0) {
+   throw new IllegalArgumentException("capacity " + initialCapacity);
+  }
+  _data = initialCapacity == 0 ? EMPTY_DATA : new float[initialCapacity];
+ }
+
+ /**
+  * Constructs a list containing the elements of the given collection, in
+  * ascending order.
+  *
+  * @param that the non-<code>null</code> collection of <code>float</code>s to
+  * add
+  * @throws NullPointerException if <i>that</i> is <code>null</code>
+  */
+ public SortedFloatList(FloatCollection that) {
+  this(that.toArray(), true);
+ }
+
+ /**
+  * Constructs a list containing the elements of the given array, in
+  * ascending order. The array is copied, not sorted in place.
+  *
+  * @param array the array to initialize the collection with
+  * @throws NullPointerException if the array is <code>null</code>
+  */
+ public SortedFloatList(float[] array) {
+  this(array.clone(), true);
+ }
+
+ /**
+  * Adopts <i>data</i>, of which every element is one of mine, sorting it
+  * first unless it is already sorted.
+  */
+ private SortedFloatList(float[] data, boolean sort) {
+  if (sort) {
+   RadixSort.sort(data, 0, data.length);
+  }
+  _data = data;
+  _size = data.length;
+ }
+
+ // FloatList methods
+ //-------------------------------------------------------------------------
+ @Override
+ public float get(int index) {
+  checkRange(index);
+  return _data[index];
+ }
+
+ @Override
+ public int size() {
+  return _size;
+ }
+
+ /**
+  * Removes the element at the specified position. Any subsequent elements
+  * are shifted to the left, subtracting one from their indices. Returns the
+  * element that was removed.
+  *
+  * @param index the index of the element to remove
+  * @return the value of the element that was removed
+  * @throws IndexOutOfBoundsException if the specified index is out of range
+  */
+ @Override
+ public float removeElementAt(int index) {
+  checkRange(index);
+  incrModCount();
+  float oldval = _data[index];
+  System.arraycopy(_data, index + 1, _data, index, _size - index - 1);
+  _size--;
+  return oldval;
+ }
+
+ /**
+  * Inserts the given element at its place in my order, after any equal
+  * elements.
+  *
+  * @param element the value to insert
+  * @return <code>true</code>
+  */
+ @Override
+ public boolean add(float element) {
+  int index = upperBound(element);
+  incrModCount();
+  ensureCapacity(_size + 1);
+  System.arraycopy(_data, index, _data, index + 1, _size - index);
+  _data[index] = element;
+  _size++;
+  return true;
+ }
+
+ /**
+  * Inserts the elements of the given collection at their places in my
+  * order. The new elements are sorted (unless <i>collection</i> is a sorted
+  * list) and merged with mine in a single pass from my end.
+  *
+  * @param collection the elements to add
+  * @return <code>true</code> iff I changed as a result of this call
+  */
+ @Override
+ public boolean addAll(FloatCollection collection) {
+  float[] added = collection.toArray();
+  int n = added.length;
+  if (n == 0) {
+   return false;
+  }
+  if (!(collection instanceof SortedFloatList)) {
+   RadixSort.sort(added, 0, n);
+  }
+  if (n > Integer.MAX_VALUE - _size) {
+   throw new IllegalStateException("Size would exceed " + Integer.MAX_VALUE);
+  }
+  incrModCount();
+  ensureCapacity(_size + n);
+  int i = _size - 1;
+  int j = n - 1;
+  for (int k = _size + n - 1; j >= 0; k--) {
+   if (i >= 0 && Float.compare(_data[i], added[j]) > 0) {
+    _data[k] = _data[i--];
+   } else {
+    _data[k] = added[j--];
+   }
+  }
+  _size += n;
+  return true;
+ }
+
+ @Override
+ public void clear() {
+  incrModCount();
+  _size = 0;
+ }
+
+ @Override
+ public boolean contains(float element) {
+  return binarySearch(element) >= 0;
+ }
+
+ @Override
+ public int indexOf(float element) {
+  int index = lowerBound(element);
+  return index < _size && Float.compare(_data[index], element) == 0
+   ? index : -1;
+ }
+
+ @Override
+ public int lastIndexOf(float element) {
+  int index = upperBound(element) - 1;
+  return index >= 0 && Float.compare(_data[index], element) == 0
+   ? index : -1;
+ }
+
+ @Override
+ public boolean removeElement(float element) {
+  int index = indexOf(element);
+  if (index < 0) {
+   return false;
+  }
+  removeElementAt(index);
+  return true;
+ }
+
+ @Override
+ protected void copyInto(int index, float[] dest, int destOffset, int length) {
+  if (index < 0 || length < 0 || index > _size - length) {
+   throw new IndexOutOfBoundsException("Range [" + index + ", " + index
+    + " + " + length + ") out of bounds for length " + _size);
+  }
+  System.arraycopy(_data, index, dest, destOffset, length);
+ }
+
+ // search methods
+ //-------------------------------------------------------------------------
+ /**
+  * Searches for the given element.
+  *
+  * @param element the value to search for
+  * @return the index of the first element equal to <i>element</i>, if any;
+  * otherwise <code>(-(<i>insertion point</i>) - 1)</code>, where the
+  * insertion point is the index of the first element greater than
+  * <i>element</i>, or my size if there is none
+  */
+ public int binarySearch(float element) {
+  int index = lowerBound(element);
+  return index < _size && Float.compare(_data[index], element) == 0
+   ? index : -index - 1;
+ }
+
+ // range methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns a view of my elements less than <i>toValue</i>.
+  *
+  * @param toValue the exclusive upper bound of the view's values
+  * @return a {@link #subList sub list} of my first elements
+  */
+ public FloatList headList(float toValue) {
+  return subList(0, lowerBound(toValue));
+ }
+
+ /**
+  * Returns a view of my elements greater than or equal to
+  * <i>fromValue</i>.
+  *
+  * @param fromValue the inclusive lower bound of the view's values
+  * @return a {@link #subList sub list} of my last elements
+  */
+ public FloatList tailList(float fromValue) {
+  return subList(lowerBound(fromValue), _size);
+ }
+
+ /**
+  * Returns a view of my elements greater than or equal to
+  * <i>fromValue</i> and less than <i>toValue</i>.
+  *
+  * @param fromValue the inclusive lower bound of the view's values
+  * @param toValue the exclusive upper bound of the view's values
+  * @return a {@link #subList sub list} of my elements in the range
+  * @throws IllegalArgumentException if <i>fromValue</i> is greater than
+  * <i>toValue</i>
+  */
+ public FloatList subRange(float fromValue, float toValue) {
+  if (Float.compare(fromValue, toValue) > 0) {
+   throw new IllegalArgumentException(fromValue + " > " + toValue);
+  }
+  return subList(lowerBound(fromValue), lowerBound(toValue));
+ }
+
+ // set methods
+ //-------------------------------------------------------------------------
+ /**
+  * Returns a new list of the elements in me or in <i>that</i>.
+  *
+  * @param that the list to merge with me
+  * @return the union of me and <i>that</i>
+  */
+ public SortedFloatList union(SortedFloatList that) {
+  float[] a = _data;
+  float[] b = that._data;
+  int m = _size;
+  int n = that._size;
+  float[] result = new float[m + n];
+  int i = 0;
+  int j = 0;
+  int k = 0;
+  while (i < m && j < n) {
+   int c = Float.compare(a[i], b[j]);
+   if (c < 0) {
+    result[k++] = a[i++];
+   } else if (c > 0) {
+    result[k++] = b[j++];
+   } else {
+    result[k++] = a[i++];
+    j++;
+   }
+  }
+  System.arraycopy(a, i, result, k, m - i);
+  k += m - i;
+  System.arraycopy(b, j, result, k, n - j);
+  k += n - j;
+  return new SortedFloatList(Arrays.copyOf(result, k), false);
+ }
+
+ /**
+  * Returns a new list of the elements in both me and <i>that</i>.
+  *
+  * @param that the list to intersect with me
+  * @return the intersection of me and <i>that</i>
+  */
+ public SortedFloatList intersection(SortedFloatList that) {
+  float[] a = _data;
+  float[] b = that._data;
+  int m = _size;
+  int n = that._size;
+  float[] result = new float[Math.min(m, n)];
+  int i = 0;
+  int j = 0;
+  int k = 0;
+  while (i < m && j < n) {
+   int c = Float.compare(a[i], b[j]);
+   if (c < 0) {
+    i++;
+   } else if (c > 0) {
+    j++;
+   } else {
+    result[k++] = a[i++];
+    j++;
+   }
+  }
+  return new SortedFloatList(Arrays.copyOf(result, k), false);
+ }
+
+ /**
+  * Returns a new list of the elements in me but not in <i>that</i>.
+  *
+  * @param that the list whose elements to leave out
+  * @return the difference of me and <i>that</i>
+  */
+ public SortedFloatList difference(SortedFloatList that) {
+  float[] a = _data;
+  float[] b = that._data;
+  int m = _size;
+  int n = that._size;
+  float[] result = new float[m];
+  int i = 0;
+  int j = 0;
+  int k = 0;
+  while (i < m && j < n) {
+   int c = Float.compare(a[i], b[j]);
+   if (c < 0) {
+    result[k++] = a[i++];
+   } else if (c > 0) {
+    j++;
+   } else {
+    i++;
+    j++;
+   }
+  }
+  System.arraycopy(a, i, result, k, m - i);
+  k += m - i;
+  return new SortedFloatList(Arrays.copyOf(result, k), false);
+ }
+
+ // capacity methods
+ //-------------------------------------------------------------------------
+ /**
+  * Increases my capacity, if necessary, to ensure that I can hold at least the
+  * number of elements specified by the minimum capacity argument without
+  * growing.
+  *
+  * @param mincap
+  */
+ public void ensureCapacity(int mincap) {
+  incrModCount();
+  if (mincap > _data.length) {
+   int newcap = (int) Math.min(_data.length * 3L / 2 + 1, Integer.MAX_VALUE);
+   _data = Arrays.copyOf(_data, Math.max(newcap, mincap));
+  }
+ }
+
+ /**
+  * Reduce my capacity, if necessary, to match my current {@link #size size}.
+  */
+ public void trimToSize() {
+  incrModCount();
+  if (_size < _data.length) {
+   _data = Arrays.copyOf(_data, _size);
+  }
+ }
+
+ // private methods
+ //-------------------------------------------------------------------------
+ private void writeObject(ObjectOutputStream out) throws IOException {
+  out.defaultWriteObject();
+  PrimitiveArrayIO.write(out, _data, 0, _size);
+ }
+
+ private void readObject(ObjectInputStream in) throws IOException,
+  ClassNotFoundException {
+  in.defaultReadObject();
+  if (_size < 0) {
+   throw new InvalidObjectException("size " + _size);
+  }
+  _data = _size == 0 ? EMPTY_DATA : new float[_size];
+  PrimitiveArrayIO.readFully(in, _data, 0, _size);
+  for (int i = 1; i < _size; i++) {
+   if (Float.compare(_data[i - 1], _data[i]) > 0) {
+    throw new InvalidObjectException("Elements out of order at " + i);
+   }
+  }
+ }
+
+ /**
+  * Returns the index of my first element not less than <i>element</i>.
+  */
+ private int lowerBound(float element) {
+  int low = 0;
+  int high = _size;
+  while (low < high) {
+   int mid = (low + high) >>> 1;
+   if (Float.compare(_data[mid], element) < 0) {
+    low = mid + 1;
+   } else {
+    high = mid;
+   }
+  }
+  return low;
+ }
+
+ /**
+  * Returns the index of my first element greater than <i>element</i>.
+  */
+ private int upperBound(float element) {
+  int low = 0;
+  int high = _size;
+  while (low < high) {
+   int mid = (low + high) >>> 1;
+   if (Float.compare(_data[mid], element) <= 0) {
+    low = mid + 1;
+   } else {
+    high = mid;
+   }
+  }
+  return low;
+ }
+
+ private void checkRange(int index) {
+  if (index < 0 || index >= _size) {
+   throw new IndexOutOfBoundsException("Should be at least 0 and less than "
+    + _size + ", found " + index);
+  }
+ }
+
+ // attributes
+ //-------------------------------------------------------------------------
+ private transient float[] _data = null;
+ private int _size = 0;
+}
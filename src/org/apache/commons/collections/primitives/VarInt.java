@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.collections.primitives;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable-length and zig-zag encoding of <code>int</code> and
+ * <code>long</code> values, as used by {@link IntCodec} and
+ * {@link LongCodec}.
+ * <p>
+ * A varint holds seven bits of an unsigned value per byte, least significant
+ * group first, with the high bit of each byte set when more bytes follow.
+ * Small values take a single byte; an <code>int</code> takes at most five
+ * bytes and a <code>long</code> at most ten. Zig-zag encoding maps signed
+ * values to unsigned ones so that values of small magnitude, negative or
+ * not, stay small: 0, -1, 1, -2, 2 ... become 0, 1, 2, 3, 4 ...
+ *
+ * @since Commons Primitives 1.1
+ * @version $Revision$ $Date$
+ */
+public final class VarInt {
+
+ /**
+  * The largest number of bytes taken by an <code>int</code> varint.
+  */
+ public static final int MAX_INT_BYTES = 5;
+
+ /**
+  * The largest number of bytes taken by a <code>long</code> varint.
+  */
+ public static final int MAX_LONG_BYTES = 10;
+
+ private VarInt() {
+ }
+
+ /**
+  * Returns the number of bytes taken by the varint encoding of the given
+  * unsigned value.
+  *
+  * @param value the value, taken as unsigned
+  * @return the encoded size, from <code>1</code> to {@link #MAX_INT_BYTES}
+  */
+ public static int sizeOfInt(int value) {
+  return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+ }
+
+ /**
+  * Returns the number of bytes taken by the varint encoding of the given
+  * unsigned value.
+  *
+  * @param value the value, taken as unsigned
+  * @return the encoded size, from <code>1</code> to {@link #MAX_LONG_BYTES}
+  */
+ public static int sizeOfLong(long value) {
+  return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+ }
+
+ /**
+  * Writes the given unsigned value as a varint at the buffer's position.
+  *
+  * @param out the buffer to write to
+  * @param value the value, taken as unsigned
+  * @throws java.nio.BufferOverflowException if <i>out</i> has too little
+  * room
+  */
+ public static void putInt(ByteBuffer out, int value) {
+  while ((value & ~0x7F) != 0) {
+   out.put((byte) (value | 0x80));
+   value >>>= 7;
+  }
+  out.put((byte) value);
+ }
+
+ /**
+  * Writes the given unsigned value as a varint at the buffer's position.
+  *
+  * @param out the buffer to write to
+  * @param value the value, taken as unsigned
+  * @throws java.nio.BufferOverflowException if <i>out</i> has too little
+  * room
+  */
+ public static void putLong(ByteBuffer out, long value) {
+  while ((value & ~0x7FL) != 0) {
+   out.put((byte) (value | 0x80));
+   value >>>= 7;
+  }
+  out.put((byte) value);
+ }
+
+ /**
+  * Reads an unsigned varint of at most {@link #MAX_INT_BYTES} bytes from
+  * the buffer's position.
+  *
+  * @param in the buffer to read from
+  * @return the value read
+  * @throws java.nio.BufferUnderflowException if <i>in</i> ends inside the
+  * varint
+  * @throws IllegalArgumentException if the varint is too long
+  */
+ public static int getInt(ByteBuffer in) {
+  int value = 0;
+  for (int shift = 0; shift < 7 * MAX_INT_BYTES; shift += 7) {
+   byte b = in.get();
+   value |= (b & 0x7F) << shift;
+   if (b >= 0) {
+    return value;
+   }
+  }
+  throw new IllegalArgumentException("Malformed int varint");
+ }
+
+ /**
+  * Reads an unsigned varint of at most {@link #MAX_LONG_BYTES} bytes from
+  * the buffer's position.
+  *
+  * @param in the buffer to read from
+  * @return the value read
+  * @throws java.nio.BufferUnderflowException if <i>in</i> ends inside the
+  * varint
+  * @throws IllegalArgumentException if the varint is too long
+  */
+ public static long getLong(ByteBuffer in) {
+  long value = 0;
+  for (int shift = 0; shift < 7 * MAX_LONG_BYTES; shift += 7) {
+   byte b = in.get();
+   value |= (b & 0x7FL) << shift;
+   if (b >= 0) {
+    return value;
+   }
+  }
+  throw new IllegalArgumentException("Malformed long varint");
+ }
+
+ /**
+  * Maps a signed value to an unsigned one, interleaving negative and
+  * non-negative values.
+  *
+  * @param value the signed value
+  * @return the zig-zag encoded value
+  */
+ public static int encodeZigZag(int value) {
+  return (value << 1) ^ (value >> 31);
+ }
+
+ /**
+  * Maps a signed value to an unsigned one, interleaving negative and
+  * non-negative values.
+  *
+  * @param value the signed value
+  * @return the zig-zag encoded value
+  */
+ public static long encodeZigZag(long value) {
+  return (value << 1) ^ (value >> 63);
+ }
+
+ /**
+  * Reverses {@link #encodeZigZag(int)}.
+  *
+  * @param value the zig-zag encoded value
+  * @return the signed value
+  */
+ public static int decodeZigZag(int value) {
+  return (value >>> 1) ^ -(value & 1);
+ }
+
+ /**
+  * Reverses {@link #encodeZigZag(long)}.
+  *
+  * @param value the zig-zag encoded value
+  * @return the signed value
+  */
+ public static long decodeZigZag(long value) {
+  return (value >>> 1) ^ -(value & 1);
+ }
+}